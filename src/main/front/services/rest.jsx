@@ -5,6 +5,22 @@ import { t } from 'services/translation.jsx';
 import { messageModal } from 'services/modal.jsx';
 import properties from 'constants/properties.json';
 
+/**
+ * Last response body and ETag of each GET URL, used to revalidate them with If-None-Match. They are kept in memory only,
+ * since the API responses are sent with no-store and are never stored by the browser, and they are cleared whenever the
+ * session ends, so they are never served to another account.
+ */
+var etagResponses = {};
+
+/**
+ * Clears the response bodies kept to revalidate them with If-None-Match.
+ */
+export function clearEtagResponses() {
+
+    etagResponses = {};
+
+}
+
 /**
  * REST Request.
  *
@@ -57,6 +73,8 @@ export function rest({
     headers['Accept'] = 'application/json';
     if (body) headers['Content-Type'] = 'application/json';
     headers[properties.headers.appLanguage] = currentLanguage();
+    var etagResponse = method == 'get' ? etagResponses[fullUrl] : null;
+    if (etagResponse) headers['If-None-Match'] = etagResponse.etag;
 
     fetch(fullUrl, {
         method: method,
@@ -64,9 +82,9 @@ export function rest({
         body: body ? JSON.stringify(body) : null
     }).then((response) => {
         if (loading && (!loadingChain || response.status < 200 || response.status >= 300)) {
-            notLoadingF(() => { processSuccess(callback, serviceExceptionCallback, response); });
+            notLoadingF(() => { processSuccess(method, fullUrl, callback, serviceExceptionCallback, response); });
         } else {
-            processSuccess(callback, serviceExceptionCallback, response);
+            processSuccess(method, fullUrl, callback, serviceExceptionCallback, response);
         }
     }).catch((error) => {
         if (loading) {
@@ -78,19 +96,31 @@ export function rest({
 
 }
 
-function processSuccess(callback, serviceExceptionCallback, response) {
+function processSuccess(method, fullUrl, callback, serviceExceptionCallback, response) {
 
     var sessionId = response.headers.get(properties.headers.sessionId);
     if (sessionId) setSesionId(sessionId);
 
     if (response.status >= 200 && response.status < 300) {
 
-        if (callback) {
+        var etag = method == 'get' ? response.headers.get('ETag') : null;
+        if (etag) {
+            response.text().then((responseText) => {
+                etagResponses[fullUrl] = { etag: etag, responseText: responseText };
+                if (callback) callback(JSON.parse(responseText));
+            });
+        } else if (callback) {
             response.json().then(callback);
         }
 
         setTimeout(sessionRenewed, 100);
 
+    } else if (response.status == 304 && etagResponses[fullUrl]) {
+
+        if (callback) callback(JSON.parse(etagResponses[fullUrl].responseText));
+
+        setTimeout(sessionRenewed, 100);
+
     } else if (response.status == 400) {
 
         response.json().then((responseJson) => {
@@ -1,4 +1,4 @@
-import { rest } from 'services/rest.jsx';
+import { rest, clearEtagResponses } from 'services/rest.jsx';
 import { currentLocationPath, isLocationPublic } from 'services/location.jsx';
 import { areSessionKeysGenerated } from 'services/crypto/crypto.jsx';
 import { view } from 'services/views.jsx';
@@ -89,6 +89,8 @@ export function setSessionInfo(sessionInfo) {
 
     if (sessionInfo) {
 
+        if (!currentSession || (sessionInfo.email && sessionInfo.email !== currentSession.email)) clearEtagResponses();
+
         currentSession = {
             authenticated: sessionInfo.authenticated,
             email: sessionInfo.email || (currentSession ? currentSession.email : null)
@@ -99,6 +101,7 @@ export function setSessionInfo(sessionInfo) {
     } else {
 
         currentSession = null;
+        clearEtagResponses();
 
     }
 
@@ -173,6 +176,8 @@ export function startWorkingWithoutSession(callback) {
 
     if (!authenticatedOnce) reset();
 
+    clearEtagResponses();
+
     if (!currentlyWorkingWithoutSession) {
 
         window.clearInterval(currentSessionExpirationInterval);
@@ -218,6 +223,8 @@ export function workingWithoutSession() {
  */
 export function logout() {
 
+    clearEtagResponses();
+
     if (workingWithoutSession()) reset();
 
     rest({
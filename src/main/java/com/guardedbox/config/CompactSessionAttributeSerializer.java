@@ -0,0 +1,395 @@
+package com.guardedbox.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import com.guardedbox.dto.AccountDto;
+import com.guardedbox.dto.ChallengeDto;
+import com.guardedbox.dto.OtpDto;
+
+/**
+ * Session attributes serializer. The attributes stored in session by the login process (ChallengeDto, LinkedList of
+ * OtpDtos and the SecurityContext holding an AuthenticationPrincipal) are written in a compact fixed-layout binary
+ * format, with base64 fields stored as raw bytes. Any other attribute is written with Java serialization.
+ * Deserialization accepts both formats, so attributes stored before this serializer was introduced can still be read.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public class CompactSessionAttributeSerializer {
+
+    /** Format tag: ChallengeDto. Java serialization streams always start by 0xAC, so tags cannot collide with them. */
+    private static final byte CHALLENGE_TAG = 0x01;
+
+    /** Format tag: LinkedList of OtpDtos. */
+    private static final byte OTP_LIST_TAG = 0x02;
+
+    /** Format tag: SecurityContext holding a UsernamePasswordAuthenticationToken with an AuthenticationPrincipal. */
+    private static final byte SECURITY_CONTEXT_TAG = 0x03;
+
+    /** Field tag: null. */
+    private static final byte NULL_FIELD = 0x00;
+
+    /** Field tag: UTF string. */
+    private static final byte STRING_FIELD = 0x01;
+
+    /** Field tag: base64 string stored as raw bytes. */
+    private static final byte BASE64_FIELD = 0x02;
+
+    /** Java serialization fallback serializer. */
+    private final SerializingConverter serializingConverter = new SerializingConverter();
+
+    /** Java serialization fallback deserializer. */
+    private final DeserializingConverter deserializingConverter = new DeserializingConverter();
+
+    /**
+     * Serializes a session attribute.
+     *
+     * @param attribute The session attribute.
+     * @return The serialized session attribute.
+     */
+    public byte[] serialize(
+            Object attribute) {
+
+        try {
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            if (attribute instanceof ChallengeDto) {
+
+                ChallengeDto challenge = (ChallengeDto) attribute;
+                out.writeByte(CHALLENGE_TAG);
+                writeBase64(out, challenge.getChallenge());
+                writeLong(out, challenge.getExpirationTime());
+
+            } else if (isOtpList(attribute)) {
+
+                @SuppressWarnings("unchecked")
+                List<OtpDto> otps = (List<OtpDto>) attribute;
+                out.writeByte(OTP_LIST_TAG);
+                out.writeInt(otps.size());
+                for (OtpDto otp : otps) {
+                    writeString(out, otp.getEmail());
+                    writeString(out, otp.getOtp());
+                    writeLong(out, otp.getExpirationTime());
+                }
+
+            } else if (isCompactSecurityContext(attribute)) {
+
+                UsernamePasswordAuthenticationToken authentication =
+                        (UsernamePasswordAuthenticationToken) ((SecurityContext) attribute).getAuthentication();
+                AccountDto account = ((AuthenticationPrincipal) authentication.getPrincipal()).getAccount();
+                out.writeByte(SECURITY_CONTEXT_TAG);
+                writeUuid(out, account.getAccountId());
+                writeString(out, account.getEmail());
+                writeBase64(out, account.getLoginSalt());
+                writeBase64(out, account.getLoginPublicKey());
+                writeBase64(out, account.getEncryptionSalt());
+                writeBase64(out, account.getEncryptionPublicKey());
+                writeBase64(out, account.getSigningSalt());
+                writeBase64(out, account.getSigningPublicKey());
+                out.writeInt(authentication.getAuthorities().size());
+                for (GrantedAuthority authority : authentication.getAuthorities()) {
+                    out.writeUTF(authority.getAuthority());
+                }
+
+            } else {
+
+                return serializingConverter.convert(attribute);
+
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error serializing the session attribute", e);
+        }
+
+    }
+
+    /**
+     * Deserializes a session attribute.
+     *
+     * @param serializedAttribute The serialized session attribute.
+     * @return The session attribute.
+     */
+    public Object deserialize(
+            byte[] serializedAttribute) {
+
+        if (serializedAttribute.length == 0
+                || serializedAttribute[0] != CHALLENGE_TAG
+                        && serializedAttribute[0] != OTP_LIST_TAG
+                        && serializedAttribute[0] != SECURITY_CONTEXT_TAG) {
+            return deserializingConverter.convert(serializedAttribute);
+        }
+
+        try {
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(serializedAttribute));
+
+            switch (in.readByte()) {
+
+            case CHALLENGE_TAG:
+
+                return new ChallengeDto()
+                        .setChallenge(readString(in))
+                        .setExpirationTime(readLong(in));
+
+            case OTP_LIST_TAG:
+
+                int numberOfOtps = in.readInt();
+                LinkedList<OtpDto> otps = new LinkedList<>();
+                for (int i = 0; i < numberOfOtps; i++) {
+                    otps.add(new OtpDto()
+                            .setEmail(readString(in))
+                            .setOtp(readString(in))
+                            .setExpirationTime(readLong(in)));
+                }
+                return otps;
+
+            default:
+
+                AccountDto account = new AccountDto()
+                        .setAccountId(readUuid(in))
+                        .setEmail(readString(in))
+                        .setLoginSalt(readString(in))
+                        .setLoginPublicKey(readString(in))
+                        .setEncryptionSalt(readString(in))
+                        .setEncryptionPublicKey(readString(in))
+                        .setSigningSalt(readString(in))
+                        .setSigningPublicKey(readString(in));
+                int numberOfAuthorities = in.readInt();
+                List<GrantedAuthority> authorities = new ArrayList<>(numberOfAuthorities);
+                for (int i = 0; i < numberOfAuthorities; i++) {
+                    authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+                }
+                return new SecurityContextImpl(
+                        new UsernamePasswordAuthenticationToken(new AuthenticationPrincipal(account), null, authorities));
+
+            }
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error deserializing the session attribute", e);
+        }
+
+    }
+
+    /**
+     * @param attribute A session attribute.
+     * @return Boolean indicating if the attribute is a LinkedList of OtpDtos.
+     */
+    private boolean isOtpList(
+            Object attribute) {
+
+        if (attribute == null || attribute.getClass() != LinkedList.class)
+            return false;
+
+        for (Object element : (LinkedList<?>) attribute) {
+            if (element == null || element.getClass() != OtpDto.class)
+                return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * @param attribute A session attribute.
+     * @return Boolean indicating if the attribute is a SecurityContext that can be written in the compact format without
+     *         losing information.
+     */
+    private boolean isCompactSecurityContext(
+            Object attribute) {
+
+        if (attribute == null || attribute.getClass() != SecurityContextImpl.class)
+            return false;
+
+        Object authentication = ((SecurityContext) attribute).getAuthentication();
+        if (authentication == null || authentication.getClass() != UsernamePasswordAuthenticationToken.class)
+            return false;
+
+        UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) authentication;
+        if (!token.isAuthenticated() || token.getCredentials() != null || token.getDetails() != null
+                || !(token.getPrincipal() instanceof AuthenticationPrincipal))
+            return false;
+
+        AccountDto account = ((AuthenticationPrincipal) token.getPrincipal()).getAccount();
+        if (account == null || account.getSecrets() != null)
+            return false;
+
+        for (GrantedAuthority authority : token.getAuthorities()) {
+            if (authority.getClass() != SimpleGrantedAuthority.class)
+                return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param out The output stream.
+     * @param value The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeString(
+            DataOutputStream out,
+            String value)
+            throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL_FIELD);
+        } else {
+            out.writeByte(STRING_FIELD);
+            out.writeUTF(value);
+        }
+
+    }
+
+    /**
+     * Writes a nullable base64 string. If the string is canonical base64, its raw bytes are written instead.
+     *
+     * @param out The output stream.
+     * @param value The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeBase64(
+            DataOutputStream out,
+            String value)
+            throws IOException {
+
+        byte[] raw = null;
+        if (value != null) {
+            try {
+                raw = Base64.getDecoder().decode(value);
+                if (raw.length > 0xFFFF || !Base64.getEncoder().encodeToString(raw).equals(value))
+                    raw = null;
+            } catch (IllegalArgumentException e) {
+                raw = null;
+            }
+        }
+
+        if (raw == null) {
+            writeString(out, value);
+        } else {
+            out.writeByte(BASE64_FIELD);
+            out.writeShort(raw.length);
+            out.write(raw);
+        }
+
+    }
+
+    /**
+     * Writes a nullable long.
+     *
+     * @param out The output stream.
+     * @param value The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeLong(
+            DataOutputStream out,
+            Long value)
+            throws IOException {
+
+        out.writeBoolean(value != null);
+        if (value != null)
+            out.writeLong(value);
+
+    }
+
+    /**
+     * Writes a nullable UUID.
+     *
+     * @param out The output stream.
+     * @param value The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeUuid(
+            DataOutputStream out,
+            UUID value)
+            throws IOException {
+
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+
+    }
+
+    /**
+     * Reads a nullable string or base64 string.
+     *
+     * @param in The input stream.
+     * @return The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private String readString(
+            DataInputStream in)
+            throws IOException {
+
+        switch (in.readByte()) {
+        case NULL_FIELD:
+            return null;
+        case STRING_FIELD:
+            return in.readUTF();
+        case BASE64_FIELD:
+            byte[] raw = new byte[in.readUnsignedShort()];
+            in.readFully(raw);
+            return Base64.getEncoder().encodeToString(raw);
+        default:
+            throw new IOException("Unknown field tag");
+        }
+
+    }
+
+    /**
+     * Reads a nullable long.
+     *
+     * @param in The input stream.
+     * @return The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private Long readLong(
+            DataInputStream in)
+            throws IOException {
+
+        return in.readBoolean() ? in.readLong() : null;
+
+    }
+
+    /**
+     * Reads a nullable UUID.
+     *
+     * @param in The input stream.
+     * @return The value.
+     * @throws IOException If an I/O error occurs.
+     */
+    private UUID readUuid(
+            DataInputStream in)
+            throws IOException {
+
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.guardedbox.config;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-Memory Session Configuration. Active if property spring.session.in-memory is true. Stores the sessions in an
+ * in-process map instead of the database, so that they are not read and written to the session tables on every request.
+ * Sessions are lost on restart and are not shared between instances.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.session.in-memory", havingValue = "true")
+@EnableSpringHttpSession
+@RequiredArgsConstructor
+public class InMemorySessionConfig {
+
+    /** ServerProperties, holding the property server.servlet.session.timeout. */
+    private final ServerProperties serverProperties;
+
+    /** Property: spring.session.in-memory-cleanup-interval. */
+    @Value("${spring.session.in-memory-cleanup-interval:60s}")
+    private final Duration cleanupInterval;
+
+    /** Scheduler used to evict the expired sessions. */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-cleanup-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * This method gets called before the bean is destroyed.
+     */
+    @PreDestroy
+    private void preDestroy() {
+
+        scheduler.shutdownNow();
+
+    }
+
+    /**
+     * Bean: SessionRepository.
+     *
+     * @return InMemorySessionRepository.
+     */
+    @Bean
+    public InMemorySessionRepository sessionRepository() {
+
+        InMemorySessionRepository sessionRepository = new InMemorySessionRepository(new ConcurrentHashMap<>());
+        Duration sessionTimeout = serverProperties.getServlet().getSession().getTimeout();
+        if (sessionTimeout != null)
+            sessionRepository.setDefaultMaxInactiveInterval((int) sessionTimeout.getSeconds());
+
+        long cleanupIntervalMillis = cleanupInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(sessionRepository::cleanUpExpiredSessions,
+                cleanupIntervalMillis, cleanupIntervalMillis, TimeUnit.MILLISECONDS);
+
+        return sessionRepository;
+
+    }
+
+}
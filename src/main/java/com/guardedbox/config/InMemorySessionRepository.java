@@ -0,0 +1,62 @@
+package com.guardedbox.config;
+
+import java.util.Map;
+
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Session Repository backed by an in-process concurrent map. Expired sessions are evicted when accessed and
+ * periodically by cleanUpExpiredSessions.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public class InMemorySessionRepository
+        extends MapSessionRepository {
+
+    /** Sessions by ID. */
+    private final Map<String, Session> sessions;
+
+    /**
+     * Constructor.
+     *
+     * @param sessions The map in which the sessions will be stored. It must be thread-safe.
+     */
+    public InMemorySessionRepository(
+            Map<String, Session> sessions) {
+
+        super(sessions);
+        this.sessions = sessions;
+
+    }
+
+    /**
+     * Evicts the expired sessions.
+     */
+    public void cleanUpExpiredSessions() {
+
+        sessions.values().removeIf(Session::isExpired);
+
+    }
+
+    /**
+     * Saves a session. Expired sessions are not stored.
+     *
+     * @param session The session.
+     */
+    @Override
+    public void save(
+            MapSession session) {
+
+        if (session.isExpired()) {
+            deleteById(session.getId());
+            return;
+        }
+
+        super.save(session);
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.guardedbox.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+
+/**
+ * Session Serialization Configuration.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@Configuration
+public class SessionSerializationConfig {
+
+    /**
+     * Bean: springSessionConversionService. Used by the JDBC session repository to convert the session attributes to and
+     * from the bytes stored in the database.
+     *
+     * @return GenericConversionService backed by a CompactSessionAttributeSerializer.
+     */
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService() {
+
+        CompactSessionAttributeSerializer serializer = new CompactSessionAttributeSerializer();
+
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, serializer::serialize);
+        conversionService.addConverter(byte[].class, Object.class, serializer::deserialize);
+
+        return conversionService;
+
+    }
+
+}
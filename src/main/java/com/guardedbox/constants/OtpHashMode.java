@@ -0,0 +1,17 @@
+package com.guardedbox.constants;
+
+/**
+ * One Time Password Hash Modes Enum.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public enum OtpHashMode {
+
+    /** One time passwords are stored hashed with the PasswordEncoder (BCrypt). */
+    BCRYPT,
+
+    /** One time passwords are stored as a keyed HMAC, computed by the HiddenDerivationService. */
+    HMAC;
+
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.guardedbox.dto.AccountDto;
 import com.guardedbox.dto.CreateAccountDto;
@@ -58,16 +59,14 @@ public class AccountsController {
      * @return The login salt of the account corresponding to the introduced email.
      */
     @GetMapping("/login-salt")
-    public AccountDto getAccountLoginSalt(
+    public DeferredResult<AccountDto> getAccountLoginSalt(
             @RequestParam(name = "email", required = true) @NotBlank @Email(regexp = EMAIL_PATTERN) @Size(min = EMAIL_MIN_LENGTH, max = EMAIL_MAX_LENGTH) String email) {
 
         long startTime = System.currentTimeMillis();
 
         AccountDto accountSalt = accountsService.getAndCheckAccountLoginSaltByEmail(email);
 
-        executionTimeService.fix(startTime, securityParameters.getLoginSaltExecutionTime());
-
-        return accountSalt;
+        return executionTimeService.fixAsync(startTime, securityParameters.getLoginSaltExecutionTime(), accountSalt);
 
     }
 
@@ -0,0 +1,50 @@
+package com.guardedbox.controller;
+
+import static com.guardedbox.constants.PathParameters.API_BASE_PATH;
+
+import javax.validation.constraints.PositiveOrZero;
+
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.guardedbox.dto.ChangesDto;
+import com.guardedbox.service.SessionAccountService;
+import com.guardedbox.service.transactional.ChangesService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller: Changes.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@RestController
+@RequestMapping(API_BASE_PATH + "changes")
+@Validated
+@RequiredArgsConstructor
+public class ChangesController {
+
+    /** ChangesService. */
+    private final ChangesService changesService;
+
+    /** SessionAccountService. */
+    private final SessionAccountService sessionAccount;
+
+    /**
+     * @param since Optional time, in milliseconds since the epoch, usually the time returned by the previous call.
+     * @return The IDs of the secrets and groups of the current session account, and the ones among them that changed since
+     *         the introduced time.
+     */
+    @GetMapping()
+    public ChangesDto getChanges(
+            @RequestParam(name = "since", required = false) @PositiveOrZero Long since) {
+
+        return changesService.getChanges(sessionAccount.getAccountId(), since);
+
+    }
+
+}
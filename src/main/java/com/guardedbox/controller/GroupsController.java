@@ -7,13 +7,17 @@ import static com.guardedbox.constants.PathParameters.API_BASE_PATH;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,6 +27,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.guardedbox.dto.AccountDto;
 import com.guardedbox.dto.AddParticipantToGroupDto;
@@ -34,7 +40,10 @@ import com.guardedbox.dto.ExMemberDto;
 import com.guardedbox.dto.GroupDto;
 import com.guardedbox.dto.SecretDto;
 import com.guardedbox.dto.SuccessDto;
+import com.guardedbox.service.JsonStreamingService;
+import com.guardedbox.service.PaginationService;
 import com.guardedbox.service.SessionAccountService;
+import com.guardedbox.service.transactional.ChangesService;
 import com.guardedbox.service.transactional.GroupsService;
 
 import lombok.RequiredArgsConstructor;
@@ -57,6 +66,15 @@ public class GroupsController {
     /** SessionAccountService. */
     private final SessionAccountService sessionAccount;
 
+    /** PaginationService. */
+    private final PaginationService paginationService;
+
+    /** ChangesService. */
+    private final ChangesService changesService;
+
+    /** JsonStreamingService. */
+    private final JsonStreamingService jsonStreamingService;
+
     /**
      * @param groupId An ID representing a group.
      * @return The group corresponding to the introduced ID.
@@ -70,22 +88,76 @@ public class GroupsController {
     }
 
     /**
-     * @return All the groups belonging to the current session account.
+     * @param after Optional group ID after which the page starts. If neither after nor pageSize are introduced, all of them are returned.
+     * @param pageSize Optional page size.
+     * @param includeSecrets Optional boolean indicating if the secrets of the groups must be included. True by default.
+     * @param webRequest The web request, used to answer 304 Not Modified if its If-None-Match header matches the current ETag.
+     * @return The groups belonging to the current session account.
      */
     @GetMapping("/owned")
-    public List<GroupDto> getOwnedGroups() {
+    public List<GroupDto> getOwnedGroups(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "page-size", required = false) @Positive Integer pageSize,
+            @RequestParam(name = "include-secrets", required = false, defaultValue = "true") boolean includeSecrets,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(changesService.getOwnedGroupsEtag(sessionAccount.getAccountId()))) {
+            return null;
+        }
+
+        if (after == null && pageSize == null) {
+            return groupsService.getGroupsByOwnerAccountId(sessionAccount.getAccountId(), includeSecrets);
+        }
 
-        return groupsService.getGroupsByOwnerAccountId(sessionAccount.getAccountId());
+        return groupsService.getGroupsByOwnerAccountId(sessionAccount.getAccountId(), after, paginationService.getPageable(pageSize), includeSecrets);
 
     }
 
     /**
-     * @return All the groups in which the current session account is participant.
+     * @return The groups belonging to the current session account, ordered by ID. They are read page by page, each one in its
+     *         own transaction, and written to the response as each page is read.
+     */
+    @GetMapping("/owned/stream")
+    public ResponseEntity<StreamingResponseBody> streamOwnedGroups() {
+
+        UUID accountId = sessionAccount.getAccountId();
+        Pageable pageable = paginationService.getPageable(Integer.MAX_VALUE);
+
+        return jsonStreamingService.toJsonArray((Consumer<GroupDto> consumer) -> {
+
+            List<GroupDto> page = groupsService.getGroupsByOwnerAccountId(accountId, null, pageable, true);
+            page.forEach(consumer);
+
+            while (page.size() == pageable.getPageSize()) {
+                page = groupsService.getGroupsByOwnerAccountId(accountId, page.get(page.size() - 1).getGroupId(), pageable, true);
+                page.forEach(consumer);
+            }
+
+        });
+
+    }
+
+    /**
+     * @param after Optional group ID after which the page starts. If neither after nor pageSize are introduced, all of them are returned.
+     * @param pageSize Optional page size.
+     * @param webRequest The web request, used to answer 304 Not Modified if its If-None-Match header matches the current ETag.
+     * @return The groups in which the current session account is participant.
      */
     @GetMapping("/participant")
-    public List<GroupDto> getInvitedGroups() {
+    public List<GroupDto> getInvitedGroups(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "page-size", required = false) @Positive Integer pageSize,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(changesService.getParticipantGroupsEtag(sessionAccount.getAccountId()))) {
+            return null;
+        }
+
+        if (after == null && pageSize == null) {
+            return groupsService.getGroupsByParticipantAccountId(sessionAccount.getAccountId());
+        }
 
-        return groupsService.getGroupsByParticipantAccountId(sessionAccount.getAccountId());
+        return groupsService.getGroupsByParticipantAccountId(sessionAccount.getAccountId(), after, paginationService.getPageable(pageSize));
 
     }
 
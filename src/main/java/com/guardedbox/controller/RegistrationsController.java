@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.guardedbox.dto.CreateRegistrationDto;
 import com.guardedbox.dto.RegistrationDto;
@@ -70,7 +71,7 @@ public class RegistrationsController {
      * @return Object indicating if the execution was successful.
      */
     @PostMapping()
-    public SuccessDto createRegistration(
+    public DeferredResult<SuccessDto> createRegistration(
             @RequestBody(required = true) @Valid CreateRegistrationDto createRegistrationDto) {
 
         long startTime = System.currentTimeMillis();
@@ -78,11 +79,8 @@ public class RegistrationsController {
         // Create Registration.
         registrationsService.createRegistration(createRegistrationDto, sessionAccount.getAccount());
 
-        // Fix execution time.
-        executionTimeService.fix(startTime, securityParameters.getRegistrationExecutionTime());
-
-        // Successful result.
-        return new SuccessDto(true);
+        // Fix execution time and return the successful result.
+        return executionTimeService.fixAsync(startTime, securityParameters.getRegistrationExecutionTime(), new SuccessDto(true));
 
     }
 
@@ -4,10 +4,13 @@ import static com.guardedbox.constants.PathParameters.API_BASE_PATH;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +18,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.guardedbox.dto.CreateSecretDto;
 import com.guardedbox.dto.EditSecretDto;
 import com.guardedbox.dto.SecretDto;
+import com.guardedbox.service.JsonStreamingService;
+import com.guardedbox.service.PaginationService;
 import com.guardedbox.service.SessionAccountService;
+import com.guardedbox.service.transactional.ChangesService;
 import com.guardedbox.service.transactional.SecretsService;
 
 import lombok.RequiredArgsConstructor;
@@ -43,13 +52,86 @@ public class SecretsController {
     /** SessionAccountService. */
     private final SessionAccountService sessionAccount;
 
+    /** PaginationService. */
+    private final PaginationService paginationService;
+
+    /** ChangesService. */
+    private final ChangesService changesService;
+
+    /** JsonStreamingService. */
+    private final JsonStreamingService jsonStreamingService;
+
     /**
-     * @return All the secrets belonging to the current session account.
+     * @param after Optional secret ID after which the page starts. If neither after nor pageSize are introduced, all of them are returned.
+     * @param pageSize Optional page size.
+     * @param webRequest The web request, used to answer 304 Not Modified if its If-None-Match header matches the current ETag.
+     * @return The secrets belonging to the current session account.
      */
     @GetMapping()
-    public List<SecretDto> getSecrets() {
+    public List<SecretDto> getSecrets(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "page-size", required = false) @Positive Integer pageSize,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(changesService.getSecretsEtag(sessionAccount.getAccountId()))) {
+            return null;
+        }
+
+        if (after == null && pageSize == null) {
+            return secretsService.getSecretsByOwnerAccountId(sessionAccount.getAccountId());
+        }
+
+        return secretsService.getSecretsByOwnerAccountId(sessionAccount.getAccountId(), after, paginationService.getPageable(pageSize));
+
+    }
+
+    /**
+     * @return The secrets belonging to the current session account, ordered by ID. They are written to the response as they
+     *         are read from the database.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamSecrets() {
+
+        UUID accountId = sessionAccount.getAccountId();
+
+        return jsonStreamingService.toJsonArray(
+                (Consumer<SecretDto> consumer) -> secretsService.streamSecretsByOwnerAccountId(accountId, consumer));
+
+    }
+
+    /**
+     * @param after Optional secret ID after which the page starts. If neither after nor pageSize are introduced, all of them are returned.
+     * @param pageSize Optional page size.
+     * @param webRequest The web request, used to answer 304 Not Modified if its If-None-Match header matches the current ETag.
+     * @return The secrets belonging to the current session account, without their values and with their number of sharings and ex members.
+     */
+    @GetMapping("/metadata")
+    public List<SecretDto> getSecretsMetadata(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "page-size", required = false) @Positive Integer pageSize,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(changesService.getSecretsEtag(sessionAccount.getAccountId()))) {
+            return null;
+        }
+
+        if (after == null && pageSize == null) {
+            return secretsService.getSecretSummariesByOwnerAccountId(sessionAccount.getAccountId());
+        }
+
+        return secretsService.getSecretSummariesByOwnerAccountId(sessionAccount.getAccountId(), after, paginationService.getPageable(pageSize));
+
+    }
+
+    /**
+     * @param secretId A secret ID.
+     * @return The value and encrypted key of the secret corresponding to the introduced ID.
+     */
+    @GetMapping("/{secret-id}/value")
+    public SecretDto getSecretValue(
+            @PathVariable(name = "secret-id", required = true) @NotNull UUID secretId) {
 
-        return secretsService.getSecretsByOwnerAccountId(sessionAccount.getAccountId());
+        return secretsService.getSecretValue(sessionAccount.getAccountId(), secretId);
 
     }
 
@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.guardedbox.config.AuthenticationPrincipal;
 import com.guardedbox.constants.Header;
@@ -38,6 +39,7 @@ import com.guardedbox.dto.SuccessDto;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.properties.SecurityParametersProperties;
 import com.guardedbox.service.ChallengeService;
+import com.guardedbox.service.EmailService;
 import com.guardedbox.service.ExecutionTimeService;
 import com.guardedbox.service.MessagesService;
 import com.guardedbox.service.OtpService;
@@ -116,7 +118,7 @@ public class SessionController {
      * @return A challenge.
      */
     @PostMapping("/challenge")
-    public ChallengeDto getChallenge() {
+    public DeferredResult<ChallengeDto> getChallenge() {
 
         long startTime = System.currentTimeMillis();
 
@@ -133,11 +135,8 @@ public class SessionController {
         request.changeSessionId();
         response.addHeader(Header.SESSION_ID.getHeaderName(), session.getId());
 
-        // Fix execution time.
-        executionTimeService.fix(startTime, securityParameters.getChallengeExecutionTime());
-
-        // Return it.
-        return challengeDto;
+        // Fix execution time and return it.
+        return executionTimeService.fixAsync(startTime, securityParameters.getChallengeExecutionTime(), challengeDto);
 
     }
 
@@ -148,7 +147,7 @@ public class SessionController {
      * @return Object indicating if the execution was successful.
      */
     @PostMapping("/otp")
-    public SuccessDto obtainOtp(
+    public DeferredResult<SuccessDto> obtainOtp(
             @RequestBody(required = true) @Valid SignedChallengeResponseDto signedChallengeResponseDto) {
 
         long startTime = System.currentTimeMillis();
@@ -206,17 +205,21 @@ public class SessionController {
             // Remove the one time passwords from the current session.
             session.removeAttribute(SessionAttribute.OTP.getAttributeName());
 
+            // Report that the one time password could not be sent. This is only reached once the signed challenge response has
+            // been verified, so it does not reveal whether the email is registered.
+            if (e instanceof ServiceException
+                    && EmailService.EMAIL_SERVICE_UNAVAILABLE_ERROR_CODE.equals(((ServiceException) e).getErrorCode())) {
+                throw (ServiceException) e;
+            }
+
         }
 
         // Renew the session id and add it to the session id response header.
         request.changeSessionId();
         response.addHeader(Header.SESSION_ID.getHeaderName(), session.getId());
 
-        // Fix execution time.
-        executionTimeService.fix(startTime, securityParameters.getOtpExecutionTime());
-
-        // Successful result.
-        return new SuccessDto(true);
+        // Fix execution time and return the successful result.
+        return executionTimeService.fixAsync(startTime, securityParameters.getOtpExecutionTime(), new SuccessDto(true));
 
     }
 
@@ -227,10 +230,11 @@ public class SessionController {
      * @return Object indicating if the login was successful.
      */
     @PostMapping("/login")
-    public SessionInfoDto login(
+    public DeferredResult<SessionInfoDto> login(
             @RequestBody(required = true) @Valid OtpResponseDto otpResponseDto) {
 
         long startTime = System.currentTimeMillis();
+        SessionInfoDto sessionInfoDto = null;
 
         try {
 
@@ -259,23 +263,21 @@ public class SessionController {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             // Successful result.
-            return getSessionInfo().setSuccess(true);
+            sessionInfoDto = getSessionInfo().setSuccess(true);
 
         } catch (Exception e) {
 
             // Unsuccessful result.
-            return new SessionInfoDto().setSuccess(false);
-
-        } finally {
+            sessionInfoDto = new SessionInfoDto().setSuccess(false);
 
-            // Renew the session id and add it to the session id response header.
-            request.changeSessionId();
-            response.addHeader(Header.SESSION_ID.getHeaderName(), session.getId());
+        }
 
-            // Fix execution time.
-            executionTimeService.fix(startTime, securityParameters.getLoginExecutionTime());
+        // Renew the session id and add it to the session id response header.
+        request.changeSessionId();
+        response.addHeader(Header.SESSION_ID.getHeaderName(), session.getId());
 
-        }
+        // Fix execution time and return the result.
+        return executionTimeService.fixAsync(startTime, securityParameters.getLoginExecutionTime(), sessionInfoDto);
 
     }
 
@@ -11,7 +11,9 @@ import java.util.UUID;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
 
 import org.springframework.validation.annotation.Validated;
@@ -23,12 +25,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.guardedbox.dto.AccountDto;
 import com.guardedbox.dto.ExMemberDto;
 import com.guardedbox.dto.ShareSecretDto;
 import com.guardedbox.dto.SuccessDto;
+import com.guardedbox.service.PaginationService;
 import com.guardedbox.service.SessionAccountService;
+import com.guardedbox.service.transactional.ChangesService;
 import com.guardedbox.service.transactional.SharedSecretsService;
 
 import lombok.RequiredArgsConstructor;
@@ -51,13 +56,33 @@ public class SharedSecretsController {
     /** SessionAccountService. */
     private final SessionAccountService sessionAccount;
 
+    /** PaginationService. */
+    private final PaginationService paginationService;
+
+    /** ChangesService. */
+    private final ChangesService changesService;
+
     /**
-     * @return All the secrets shared with the current session account, grouped by owner email.
+     * @param after Optional secret ID after which the page starts. If neither after nor pageSize are introduced, all of them are returned.
+     * @param pageSize Optional page size.
+     * @param webRequest The web request, used to answer 304 Not Modified if its If-None-Match header matches the current ETag.
+     * @return The secrets shared with the current session account, grouped by owner email.
      */
     @GetMapping("/received")
-    public List<AccountDto> getSharedSecrets() {
+    public List<AccountDto> getSharedSecrets(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "page-size", required = false) @Positive Integer pageSize,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(changesService.getReceivedSecretsEtag(sessionAccount.getAccountId()))) {
+            return null;
+        }
+
+        if (after == null && pageSize == null) {
+            return sharedSecretsService.getSecretsSharedWithAccount(sessionAccount.getAccountId());
+        }
 
-        return sharedSecretsService.getSecretsSharedWithAccount(sessionAccount.getAccountId());
+        return sharedSecretsService.getSecretsSharedWithAccount(sessionAccount.getAccountId(), after, paginationService.getPageable(pageSize));
 
     }
 
@@ -102,6 +127,23 @@ public class SharedSecretsController {
 
     }
 
+    /**
+     * Shares a secret with several accounts at once.
+     *
+     * @param secretId The secret ID of the secret to be shared.
+     * @param shareSecretDtos Objects with the necessary data to share the secret, one per receiver.
+     * @return Object indicating if the execution was successful.
+     */
+    @PostMapping("/sent/{secret-id}/bulk")
+    public SuccessDto shareSecret(
+            @PathVariable(name = "secret-id", required = true) @NotNull UUID secretId,
+            @RequestBody(required = true) @NotEmpty List<@NotNull @Valid ShareSecretDto> shareSecretDtos) {
+
+        sharedSecretsService.shareSecret(sessionAccount.getAccountId(), secretId, shareSecretDtos);
+        return new SuccessDto(true);
+
+    }
+
     /**
      * Unshares a secret.
      *
@@ -0,0 +1,53 @@
+package com.guardedbox.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO: Changes.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@Getter
+@Setter
+@SuppressWarnings("serial")
+public class ChangesDto
+        implements Serializable {
+
+    /** Time at which the changes were checked, in milliseconds since the epoch. To be used as since in the next check. */
+    private Long time;
+
+    /** IDs of the Secrets owned by the Account. */
+    private List<UUID> secretIds;
+
+    /** IDs of the Secrets owned by the Account that changed since the introduced time. */
+    private List<UUID> changedSecretIds;
+
+    /** IDs of the Secrets shared with the Account. */
+    private List<UUID> receivedSecretIds;
+
+    /** IDs of the Secrets shared with the Account that changed since the introduced time. */
+    private List<UUID> changedReceivedSecretIds;
+
+    /** IDs of the Groups owned by the Account. */
+    private List<UUID> ownedGroupIds;
+
+    /** IDs of the Groups owned by the Account that changed since the introduced time. */
+    private List<UUID> changedOwnedGroupIds;
+
+    /** IDs of the Groups in which the Account is participant. */
+    private List<UUID> participantGroupIds;
+
+    /** IDs of the Groups in which the Account is participant that changed since the introduced time. */
+    private List<UUID> changedParticipantGroupIds;
+
+}
@@ -6,6 +6,7 @@ import static com.guardedbox.constants.Constraints.BASE64_PATTERN;
 import static com.guardedbox.constants.Constraints.SECRET_VALUE_MAX_LENGTH;
 
 import java.io.Serializable;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +21,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -78,6 +80,16 @@ public class SecretEntity
     @NotNull
     private Boolean mustRotateKey;
 
+    /** Version. */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /** Last Modified. */
+    @Column(name = "last_modified")
+    @NotNull
+    private Timestamp lastModified;
+
     /** Shared Secrets Based on this Secret. */
     @OneToMany(mappedBy = "secret", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SharedSecretEntity> sharedSecrets;
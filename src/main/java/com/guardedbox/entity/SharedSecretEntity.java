@@ -4,6 +4,7 @@ import static com.guardedbox.constants.Constraints.BASE64_44BYTES_LENGTH;
 import static com.guardedbox.constants.Constraints.BASE64_PATTERN;
 
 import java.io.Serializable;
+import java.sql.Timestamp;
 import java.util.UUID;
 
 import javax.persistence.Column;
@@ -15,6 +16,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -70,6 +72,16 @@ public class SharedSecretEntity
     @Size(min = BASE64_44BYTES_LENGTH, max = BASE64_44BYTES_LENGTH)
     private String encryptedKey;
 
+    /** Version. */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /** Last Modified. */
+    @Column(name = "last_modified")
+    @NotNull
+    private Timestamp lastModified;
+
     /**
      * @param <T> A projection type.
      * @param type The class of the projection.
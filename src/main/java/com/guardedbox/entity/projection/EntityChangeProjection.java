@@ -0,0 +1,20 @@
+package com.guardedbox.entity.projection;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Projection of the ID, the version and the last modification time of an Entity, used to detect changes.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public interface EntityChangeProjection {
+
+    UUID getId();
+
+    Long getVersion();
+
+    Timestamp getLastModified();
+
+}
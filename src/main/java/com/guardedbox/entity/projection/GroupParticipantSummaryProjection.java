@@ -0,0 +1,25 @@
+package com.guardedbox.entity.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of Entity: GroupParticipant, with the data of its group and the number of participants of the group.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public interface GroupParticipantSummaryProjection {
+
+    UUID getGroupId();
+
+    String getName();
+
+    String getEncryptedKey();
+
+    Boolean getParticipantsVisible();
+
+    UUID getOwnerAccountId();
+
+    Long getNumberOfParticipants();
+
+}
@@ -0,0 +1,25 @@
+package com.guardedbox.entity.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of Entity: Group, with the number of participants and ex members instead of the collections.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public interface GroupSummaryProjection {
+
+    UUID getGroupId();
+
+    String getName();
+
+    String getEncryptedKey();
+
+    Boolean getParticipantsVisible();
+
+    Long getNumberOfParticipants();
+
+    Long getNumberOfExMembers();
+
+}
@@ -0,0 +1,16 @@
+package com.guardedbox.entity.projection;
+
+/**
+ * Projection of Entity: Secret, with the value and encrypted key and the number of sharings and ex members.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public interface SecretListingProjection
+        extends SecretSummaryProjection {
+
+    String getValue();
+
+    String getEncryptedKey();
+
+}
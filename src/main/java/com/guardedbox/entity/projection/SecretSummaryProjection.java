@@ -0,0 +1,21 @@
+package com.guardedbox.entity.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of Entity: Secret, with the number of sharings and ex members instead of the value.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public interface SecretSummaryProjection {
+
+    UUID getSecretId();
+
+    Boolean getMustRotateKey();
+
+    Long getNumberOfSharings();
+
+    Long getNumberOfExMembers();
+
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import com.guardedbox.dto.CreateGroupDto;
 import com.guardedbox.dto.GroupDto;
 import com.guardedbox.entity.GroupEntity;
+import com.guardedbox.entity.projection.GroupSummaryProjection;
 
 import lombok.RequiredArgsConstructor;
 
@@ -58,6 +59,45 @@ public class GroupsMapper {
 
     }
 
+    /**
+     * Maps a Group Summary Projection to DTO.
+     *
+     * @param groupProjection The Group Summary Projection.
+     * @return The Group DTO.
+     */
+    public GroupDto toDto(
+            GroupSummaryProjection groupProjection) {
+
+        return groupProjection == null ? null : new GroupDto()
+                .setGroupId(groupProjection.getGroupId())
+                .setName(groupProjection.getName())
+                .setEncryptedKey(groupProjection.getEncryptedKey())
+                .setParticipantsVisible(groupProjection.getParticipantsVisible())
+                .setNumberOfParticipants(groupProjection.getNumberOfParticipants().intValue())
+                .setNumberOfExMembers(groupProjection.getNumberOfExMembers().intValue());
+
+    }
+
+    /**
+     * Maps a List of Group Summary Projections to List of Group DTOs.
+     *
+     * @param groupProjections The List of Group Summary Projections.
+     * @return The List of Group DTOs.
+     */
+    public List<GroupDto> summariesToDto(
+            List<GroupSummaryProjection> groupProjections) {
+
+        if (groupProjections == null)
+            return null;
+
+        List<GroupDto> groupDtos = new ArrayList<>(groupProjections.size());
+        for (GroupSummaryProjection groupProjection : groupProjections)
+            groupDtos.add(toDto(groupProjection));
+
+        return groupDtos;
+
+    }
+
     /**
      * Maps a Group DTO to Entity.
      *
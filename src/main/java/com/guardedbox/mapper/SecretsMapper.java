@@ -9,7 +9,9 @@ import com.guardedbox.dto.CreateSecretDto;
 import com.guardedbox.dto.SecretDto;
 import com.guardedbox.entity.SecretEntity;
 import com.guardedbox.entity.projection.SecretBaseProjection;
+import com.guardedbox.entity.projection.SecretListingProjection;
 import com.guardedbox.entity.projection.SecretMustRotateKeyProjection;
+import com.guardedbox.entity.projection.SecretSummaryProjection;
 import com.guardedbox.entity.projection.SecretValueProjection;
 
 /**
@@ -78,6 +80,57 @@ public class SecretsMapper {
 
     }
 
+    /**
+     * Maps a Secret Summary Projection to DTO.
+     *
+     * @param secretProjection The Secret Summary Projection.
+     * @return The Secret DTO.
+     */
+    public SecretDto toDto(
+            SecretSummaryProjection secretProjection) {
+
+        if (secretProjection == null)
+            return null;
+
+        SecretDto secretDto = new SecretDto()
+                .setSecretId(secretProjection.getSecretId())
+                .setMustRotateKey(secretProjection.getMustRotateKey())
+                .setNumberOfSharings(secretProjection.getNumberOfSharings().intValue())
+                .setNumberOfExMembers(secretProjection.getNumberOfExMembers().intValue());
+
+        if (secretProjection instanceof SecretListingProjection) {
+
+            SecretListingProjection secretSubProjection = (SecretListingProjection) secretProjection;
+            secretDto
+                    .setValue(secretSubProjection.getValue())
+                    .setEncryptedKey(secretSubProjection.getEncryptedKey());
+
+        }
+
+        return secretDto;
+
+    }
+
+    /**
+     * Maps a List of Secret Summary Projections to List of Secret DTOs.
+     *
+     * @param secretProjections The List of Secret Summary Projections.
+     * @return The List of Secret DTOs.
+     */
+    public List<SecretDto> summariesToDto(
+            List<SecretSummaryProjection> secretProjections) {
+
+        if (secretProjections == null)
+            return null;
+
+        List<SecretDto> secretDtos = new ArrayList<>(secretProjections.size());
+        for (SecretSummaryProjection secretProjection : secretProjections)
+            secretDtos.add(toDto(secretProjection));
+
+        return secretDtos;
+
+    }
+
     /**
      * Maps a List of Secret Entities to List of Secret DTOs.
      *
@@ -27,4 +27,13 @@ public class CryptographyProperties {
     /** Property: cryptography.bcrypt-rounds. */
     private final Integer bcryptRounds;
 
+    /** Property: cryptography.public-keys-cache-size. */
+    private final Integer publicKeysCacheSize;
+
+    /** Property: cryptography.secure-random-algorithm. */
+    private final String secureRandomAlgorithm;
+
+    /** Property: cryptography.secure-random-reseed-interval. */
+    private final Long secureRandomReseedInterval;
+
 }
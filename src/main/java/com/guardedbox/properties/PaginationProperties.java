@@ -0,0 +1,27 @@
+package com.guardedbox.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Properties starting by pagination.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@ConfigurationProperties(prefix = "pagination")
+@ConstructorBinding
+@RequiredArgsConstructor
+@Getter
+public class PaginationProperties {
+
+    /** Property: pagination.default-page-size. */
+    private final Integer defaultPageSize;
+
+    /** Property: pagination.max-page-size. */
+    private final Integer maxPageSize;
+
+}
@@ -3,6 +3,8 @@ package com.guardedbox.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 
+import com.guardedbox.constants.OtpHashMode;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -33,6 +35,12 @@ public class SecurityParametersProperties {
     /** Property: security-parameters.login-salt-execution-time. */
     private final Long loginSaltExecutionTime;
 
+    /** Property: security-parameters.login-salt-cache-size. */
+    private final Integer loginSaltCacheSize;
+
+    /** Property: security-parameters.login-salt-cache-ttl. */
+    private final Long loginSaltCacheTtl;
+
     /** Property: security-parameters.challenge-length. */
     private final Integer challengeLength;
 
@@ -51,6 +59,9 @@ public class SecurityParametersProperties {
     /** Property: security-parameters.otp-max-valid-otps. */
     private final Long otpMaxValidOtps;
 
+    /** Property: security-parameters.otp-hash-mode. */
+    private final OtpHashMode otpHashMode;
+
     /** Property: security-parameters.otp-execution-time. */
     private final Long otpExecutionTime;
 
@@ -1,6 +1,9 @@
 package com.guardedbox.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -77,6 +80,48 @@ public interface AccountsRepository
     AccountPublicKeysProjection findPublicKeysByAccountId(
             UUID accountId);
 
+    /**
+     * @param emails Collection of AccountEntity.email.
+     * @return The List of AccountBaseProjections corresponding to the introduced emails.
+     */
+    List<AccountBaseProjection> findBaseByEmailIn(
+            Collection<String> emails);
+
+    /**
+     * @param accountIds Collection of AccountEntity.accountId.
+     * @return The List of AccountBaseProjections corresponding to the introduced accountIds.
+     */
+    List<AccountBaseProjection> findBaseByAccountIdIn(
+            Collection<UUID> accountIds);
+
+    /**
+     * @param accountIds Collection of AccountEntity.accountId.
+     * @return The List of AccountLoginSaltProjections corresponding to the introduced accountIds.
+     */
+    List<AccountLoginSaltProjection> findLoginSaltByAccountIdIn(
+            Collection<UUID> accountIds);
+
+    /**
+     * @param accountIds Collection of AccountEntity.accountId.
+     * @return The List of AccountLoginPublicKeyProjections corresponding to the introduced accountIds.
+     */
+    List<AccountLoginPublicKeyProjection> findLoginPublicKeyByAccountIdIn(
+            Collection<UUID> accountIds);
+
+    /**
+     * @param accountIds Collection of AccountEntity.accountId.
+     * @return The List of AccountPublicKeysSaltsProjections corresponding to the introduced accountIds.
+     */
+    List<AccountPublicKeysSaltsProjection> findPublicKeysSaltsByAccountIdIn(
+            Collection<UUID> accountIds);
+
+    /**
+     * @param accountIds Collection of AccountEntity.accountId.
+     * @return The List of AccountPublicKeysProjections corresponding to the introduced accountIds.
+     */
+    List<AccountPublicKeysProjection> findPublicKeysByAccountIdIn(
+            Collection<UUID> accountIds);
+
     /**
      * @param email AccountEntity.email.
      * @return The AccountEntity corresponding to the introduced email.
@@ -163,4 +208,56 @@ public interface AccountsRepository
 
     }
 
+    /**
+     * @param <T> A projection type.
+     * @param accountIds A Collection of accountIds.
+     * @param type The class of the projection.
+     * @return Map of the projections corresponding to the introduced accountIds and projection class, by accountId. All of them are
+     *         retrieved with a single query.
+     */
+    static <T extends AccountBaseProjection> Map<UUID, T> getProjections(
+            Collection<UUID> accountIds,
+            Class<T> type) {
+
+        Map<UUID, T> projections = new HashMap<>(accountIds.size());
+
+        if (accountIds.isEmpty())
+            return projections;
+
+        AccountsRepository repository = SpringContext.getAccountsRepository();
+        List<? extends AccountBaseProjection> projectionsList = null;
+
+        if (AccountLoginSaltProjection.class.equals(type)) {
+
+            projectionsList = repository.findLoginSaltByAccountIdIn(accountIds);
+
+        } else if (AccountLoginPublicKeyProjection.class.equals(type)) {
+
+            projectionsList = repository.findLoginPublicKeyByAccountIdIn(accountIds);
+
+        } else if (AccountPublicKeysSaltsProjection.class.equals(type)) {
+
+            projectionsList = repository.findPublicKeysSaltsByAccountIdIn(accountIds);
+
+        } else if (AccountPublicKeysProjection.class.equals(type)) {
+
+            projectionsList = repository.findPublicKeysByAccountIdIn(accountIds);
+
+        } else if (AccountBaseProjection.class.equals(type)) {
+
+            projectionsList = repository.findBaseByAccountIdIn(accountIds);
+
+        } else {
+
+            throw new IllegalArgumentException("Type must extend AccountBaseProjection");
+
+        }
+
+        for (AccountBaseProjection projection : projectionsList)
+            projections.put(projection.getAccountId(), type.cast(projection));
+
+        return projections;
+
+    }
+
 }
@@ -1,10 +1,14 @@
 package com.guardedbox.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.ExMemberEntity;
 
@@ -19,29 +23,81 @@ public interface ExMembersRepository
         JpaSpecificationExecutor<ExMemberEntity> {
 
     /**
-     * @param secretId ExMemberEntity.secretId.
      * @param email ExMemberEntity.email.
-     * @return Boolean indicating if an ExMemberEntity corresponding to the introduced secretId and email exists.
+     * @return The List of ExMemberEntities corresponding to the introduced email.
      */
-    boolean existsBySecretSecretIdAndEmail(
-            UUID secretId,
+    List<ExMemberEntity> findByEmail(
             String email);
 
     /**
+     * Inserts an ExMemberEntity associated to a secret, unless one with the same secretId and email already exists, with a
+     * single statement that relies on the SECRET_ID_EMAIL unique key.
+     *
+     * @param exMemberId ExMemberEntity.exMemberId of the new ExMemberEntity.
+     * @param secretId ExMemberEntity.secretId.
+     * @param email ExMemberEntity.email.
+     * @param cause ExMemberEntity.cause.
+     */
+    @Modifying
+    @Query(value = "insert into ex_member (ex_member_id, secret_id, email, cause) values (:exMemberId, :secretId, :email, :cause) "
+            + "on duplicate key update ex_member_id = ex_member_id", nativeQuery = true)
+    void insertSecretExMemberIfAbsent(
+            @Param("exMemberId") UUID exMemberId,
+            @Param("secretId") UUID secretId,
+            @Param("email") String email,
+            @Param("cause") String cause);
+
+    /**
+     * Inserts an ExMemberEntity associated to a group, unless one with the same groupId and email already exists, with a
+     * single statement that relies on the GROUP_ID_EMAIL unique key.
+     *
+     * @param exMemberId ExMemberEntity.exMemberId of the new ExMemberEntity.
      * @param groupId ExMemberEntity.groupId.
      * @param email ExMemberEntity.email.
-     * @return Boolean indicating if an ExMemberEntity corresponding to the introduced groupId and email exists.
+     * @param cause ExMemberEntity.cause.
      */
-    boolean existsByGroupGroupIdAndEmail(
-            UUID groupId,
-            String email);
+    @Modifying
+    @Query(value = "insert into ex_member (ex_member_id, group_id, email, cause) values (:exMemberId, :groupId, :email, :cause) "
+            + "on duplicate key update ex_member_id = ex_member_id", nativeQuery = true)
+    void insertGroupExMemberIfAbsent(
+            @Param("exMemberId") UUID exMemberId,
+            @Param("groupId") UUID groupId,
+            @Param("email") String email,
+            @Param("cause") String cause);
 
     /**
+     * Inserts an ExMemberEntity with the introduced email for each secret shared with the introduced account, skipping the
+     * secrets that already have one, with a single statement.
+     *
+     * @param receiverAccountId SharedSecretEntity.receiverAccount.accountId.
      * @param email ExMemberEntity.email.
-     * @return The List of ExMemberEntities corresponding to the introduced email.
+     * @param cause ExMemberEntity.cause.
      */
-    List<ExMemberEntity> findByEmail(
-            String email);
+    @Modifying
+    @Query(value = "insert into ex_member (ex_member_id, secret_id, email, cause) "
+            + "select unhex(replace(uuid(), '-', '')), ss.secret_id, :email, :cause from shared_secret ss where ss.receiver_account_id = :receiverAccountId "
+            + "on duplicate key update ex_member_id = ex_member.ex_member_id", nativeQuery = true)
+    void insertSecretExMembersIfAbsentByReceiverAccountId(
+            @Param("receiverAccountId") UUID receiverAccountId,
+            @Param("email") String email,
+            @Param("cause") String cause);
+
+    /**
+     * Inserts an ExMemberEntity with the introduced email for each group in which the introduced account participates,
+     * skipping the groups that already have one, with a single statement.
+     *
+     * @param participantAccountId GroupParticipantEntity.account.accountId.
+     * @param email ExMemberEntity.email.
+     * @param cause ExMemberEntity.cause.
+     */
+    @Modifying
+    @Query(value = "insert into ex_member (ex_member_id, group_id, email, cause) "
+            + "select unhex(replace(uuid(), '-', '')), gp.group_id, :email, :cause from group_participant gp where gp.account_id = :participantAccountId "
+            + "on duplicate key update ex_member_id = ex_member.ex_member_id", nativeQuery = true)
+    void insertGroupExMembersIfAbsentByParticipantAccountId(
+            @Param("participantAccountId") UUID participantAccountId,
+            @Param("email") String email,
+            @Param("cause") String cause);
 
     /**
      * Deletes an ExMemberEntity by secretId and email.
@@ -53,6 +109,18 @@ public interface ExMembersRepository
             UUID secretId,
             String email);
 
+    /**
+     * Deletes all ExMemberEntities by secretId and emails, with a single statement.
+     *
+     * @param secretId ExMemberEntity.secretId.
+     * @param emails Collection of ExMemberEntity.email.
+     */
+    @Modifying
+    @Query("delete from ExMemberEntity em where em.secret.secretId = :secretId and em.email in :emails")
+    void deleteBySecretSecretIdAndEmailIn(
+            @Param("secretId") UUID secretId,
+            @Param("emails") Collection<String> emails);
+
     /**
      * Deletes an ExMemberEntity by groupId and email.
      *
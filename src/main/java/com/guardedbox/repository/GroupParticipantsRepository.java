@@ -1,11 +1,18 @@
 package com.guardedbox.repository;
 
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.GroupParticipantEntity;
+import com.guardedbox.entity.projection.EntityChangeProjection;
+import com.guardedbox.entity.projection.GroupParticipantSummaryProjection;
 
 /**
  * Repository: GroupParticipant.
@@ -17,6 +24,30 @@ public interface GroupParticipantsRepository
         extends JpaRepository<GroupParticipantEntity, UUID>,
         JpaSpecificationExecutor<GroupParticipantEntity> {
 
+    /**
+     * @param groupId Group.groupId.
+     * @param participantAccountId Account.accountId.
+     * @return Boolean indicating if a GroupParticipantEntity corresponding to the introduced groupId and accountId exists.
+     */
+    boolean existsByGroupGroupIdAndAccountAccountId(
+            UUID groupId,
+            UUID participantAccountId);
+
+    /**
+     * Deletes the GroupParticipantEntity corresponding to a groupId and the email of its account, with a single statement
+     * that joins group_participant to account.
+     *
+     * @param groupId Group.groupId.
+     * @param email Account.email.
+     * @return The number of deleted GroupParticipantEntities.
+     */
+    @Modifying
+    @Query(value = "delete gp from group_participant gp join account a on a.account_id = gp.account_id "
+            + "where gp.group_id = :groupId and a.email = :email", nativeQuery = true)
+    int deleteByGroupGroupIdAndAccountEmail(
+            @Param("groupId") UUID groupId,
+            @Param("email") String email);
+
     /**
      * @param groupId Group.groupId.
      * @param participantAccountId Account.accountId.
@@ -26,4 +57,56 @@ public interface GroupParticipantsRepository
             UUID groupId,
             UUID participantAccountId);
 
+    /** Select clause of the GroupParticipantSummaryProjection queries. */
+    String GROUP_PARTICIPANT_SUMMARY_SELECT = "select g.groupId as groupId, g.name as name, gp.encryptedKey as encryptedKey, "
+            + "g.participantsVisible as participantsVisible, g.ownerAccount.accountId as ownerAccountId, "
+            + "(select count(p) from GroupParticipantEntity p where p.group = g) as numberOfParticipants "
+            + "from GroupParticipantEntity gp join gp.group g ";
+
+    /**
+     * @param participantAccountId Account.accountId.
+     * @return The List of GroupParticipantSummaryProjections corresponding to the introduced accountId, ordered by groupId.
+     */
+    @Query(GROUP_PARTICIPANT_SUMMARY_SELECT
+            + "where gp.account.accountId = :participantAccountId order by g.groupId")
+    List<GroupParticipantSummaryProjection> findSummaryByAccountAccountId(
+            @Param("participantAccountId") UUID participantAccountId);
+
+    /**
+     * @param participantAccountId Account.accountId.
+     * @param pageable The page size.
+     * @return The first page of GroupParticipantSummaryProjections corresponding to the introduced accountId, ordered by groupId.
+     */
+    @Query(GROUP_PARTICIPANT_SUMMARY_SELECT
+            + "where gp.account.accountId = :participantAccountId order by g.groupId")
+    List<GroupParticipantSummaryProjection> findSummaryByAccountAccountId(
+            @Param("participantAccountId") UUID participantAccountId,
+            Pageable pageable);
+
+    /**
+     * @param participantAccountId Account.accountId.
+     * @param groupId The groupId after which the page starts.
+     * @param pageable The page size.
+     * @return The page of GroupParticipantSummaryProjections corresponding to the introduced accountId after the introduced
+     *         groupId, ordered by groupId.
+     */
+    @Query(GROUP_PARTICIPANT_SUMMARY_SELECT
+            + "where gp.account.accountId = :participantAccountId and g.groupId > :groupId order by g.groupId")
+    List<GroupParticipantSummaryProjection> findSummaryByAccountAccountIdAndGroupGroupIdGreaterThan(
+            @Param("participantAccountId") UUID participantAccountId,
+            @Param("groupId") UUID groupId,
+            Pageable pageable);
+
+    /**
+     * @param participantAccountId Account.accountId.
+     * @return The List of EntityChangeProjections of the Groups in which the introduced accountId is participant. Their
+     *         version is the sum of the ones of the GroupParticipantEntity and its Group, and their last modification time the
+     *         latest of both.
+     */
+    @Query("select g.groupId as id, gp.version + g.version as version, "
+            + "case when gp.lastModified > g.lastModified then gp.lastModified else g.lastModified end as lastModified "
+            + "from GroupParticipantEntity gp join gp.group g where gp.account.accountId = :participantAccountId")
+    List<EntityChangeProjection> findChangeByAccountAccountId(
+            @Param("participantAccountId") UUID participantAccountId);
+
 }
@@ -1,9 +1,14 @@
 package com.guardedbox.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.GroupSecretEntity;
 
@@ -17,4 +22,39 @@ public interface GroupSecretsRepository
         extends JpaRepository<GroupSecretEntity, UUID>,
         JpaSpecificationExecutor<GroupSecretEntity> {
 
+    /**
+     * @param groupIds Collection of Group.groupId.
+     * @return The List of GroupSecretEntities belonging to any of the introduced groupIds.
+     */
+    List<GroupSecretEntity> findByGroupGroupIdIn(
+            Collection<UUID> groupIds);
+
+    /**
+     * Updates the value of a GroupSecretEntity by groupSecretId and groupId, with a single statement.
+     *
+     * @param groupSecretId GroupSecretEntity.groupSecretId.
+     * @param groupId Group.groupId.
+     * @param value The new GroupSecretEntity.value.
+     * @return The number of updated GroupSecretEntities.
+     */
+    @Modifying
+    @Query("update GroupSecretEntity gs set gs.value = :value where gs.groupSecretId = :groupSecretId and gs.group.groupId = :groupId")
+    int updateValueByGroupSecretIdAndGroupGroupId(
+            @Param("groupSecretId") UUID groupSecretId,
+            @Param("groupId") UUID groupId,
+            @Param("value") String value);
+
+    /**
+     * Deletes a GroupSecretEntity by groupSecretId and groupId, with a single statement.
+     *
+     * @param groupSecretId GroupSecretEntity.groupSecretId.
+     * @param groupId Group.groupId.
+     * @return The number of deleted GroupSecretEntities.
+     */
+    @Modifying
+    @Query("delete from GroupSecretEntity gs where gs.groupSecretId = :groupSecretId and gs.group.groupId = :groupId")
+    int deleteByGroupSecretIdAndGroupGroupId(
+            @Param("groupSecretId") UUID groupSecretId,
+            @Param("groupId") UUID groupId);
+
 }
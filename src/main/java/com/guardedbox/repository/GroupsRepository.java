@@ -1,12 +1,19 @@
 package com.guardedbox.repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.GroupEntity;
+import com.guardedbox.entity.projection.EntityChangeProjection;
+import com.guardedbox.entity.projection.GroupSummaryProjection;
 
 /**
  * Repository: Group.
@@ -18,18 +25,68 @@ public interface GroupsRepository
         extends JpaRepository<GroupEntity, UUID>,
         JpaSpecificationExecutor<GroupEntity> {
 
+    /** Select clause of the GroupSummaryProjection queries. */
+    String GROUP_SUMMARY_SELECT = "select g.groupId as groupId, g.name as name, g.encryptedKey as encryptedKey, "
+            + "g.participantsVisible as participantsVisible, "
+            + "(select count(gp) from GroupParticipantEntity gp where gp.group = g) as numberOfParticipants, "
+            + "(select count(em) from ExMemberEntity em where em.group = g) as numberOfExMembers "
+            + "from GroupEntity g ";
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @return The List of GroupSummaryProjections corresponding to the introduced owner accountId, ordered by groupId.
+     */
+    @Query(GROUP_SUMMARY_SELECT
+            + "where g.ownerAccount.accountId = :ownerAccountId order by g.groupId")
+    List<GroupSummaryProjection> findSummaryByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param pageable The page size.
+     * @return The first page of GroupSummaryProjections corresponding to the introduced owner accountId, ordered by groupId.
+     */
+    @Query(GROUP_SUMMARY_SELECT
+            + "where g.ownerAccount.accountId = :ownerAccountId order by g.groupId")
+    List<GroupSummaryProjection> findSummaryByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId,
+            Pageable pageable);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param groupId The groupId after which the page starts.
+     * @param pageable The page size.
+     * @return The page of GroupSummaryProjections corresponding to the introduced owner accountId after the introduced
+     *         groupId, ordered by groupId.
+     */
+    @Query(GROUP_SUMMARY_SELECT
+            + "where g.ownerAccount.accountId = :ownerAccountId and g.groupId > :groupId order by g.groupId")
+    List<GroupSummaryProjection> findSummaryByOwnerAccountAccountIdAndGroupIdGreaterThan(
+            @Param("ownerAccountId") UUID ownerAccountId,
+            @Param("groupId") UUID groupId,
+            Pageable pageable);
+
     /**
      * @param ownerAccountId Account.accountId.
-     * @return The List of GroupEntities corresponding to the introduced owner accountId.
+     * @return The List of EntityChangeProjections of the GroupEntities corresponding to the introduced owner accountId.
      */
-    List<GroupEntity> findByOwnerAccountAccountId(
-            UUID ownerAccountId);
+    @Query("select g.groupId as id, g.version as version, g.lastModified as lastModified from GroupEntity g where g.ownerAccount.accountId = :ownerAccountId")
+    List<EntityChangeProjection> findChangeByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId);
 
     /**
-     * @param accountId Account.accountId.
-     * @return The List of GroupEntities in which the introduced accountId is participant.
+     * Sets the last modification time of all the GroupEntities in which an account is participant and increments their
+     * version, with a single statement.
+     *
+     * @param participantAccountId GroupParticipant.account.accountId.
+     * @param lastModified The new GroupEntity.lastModified.
+     * @return The number of updated GroupEntities.
      */
-    List<GroupEntity> findByParticipantsAccountAccountId(
-            UUID accountId);
+    @Modifying
+    @Query("update GroupEntity g set g.lastModified = :lastModified, g.version = g.version + 1 "
+            + "where g.groupId in (select gp.group.groupId from GroupParticipantEntity gp where gp.account.accountId = :participantAccountId)")
+    int updateLastModifiedByParticipantAccountId(
+            @Param("participantAccountId") UUID participantAccountId,
+            @Param("lastModified") Timestamp lastModified);
 
 }
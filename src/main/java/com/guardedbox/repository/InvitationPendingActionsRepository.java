@@ -1,10 +1,14 @@
 package com.guardedbox.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.InvitationPendingActionEntity;
 
@@ -71,6 +75,18 @@ public interface InvitationPendingActionsRepository
             UUID secretId,
             String receiverEmail);
 
+    /**
+     * Deletes all InvitationPendingActionEntities by secretId and receiverEmails, with a single statement.
+     *
+     * @param secretId InvitationPendingAction.secretId.
+     * @param receiverEmails Collection of InvitationPendingAction.receiverEmail.
+     */
+    @Modifying
+    @Query("delete from InvitationPendingActionEntity ipa where ipa.secret.secretId = :secretId and ipa.receiverEmail in :receiverEmails")
+    void deleteBySecretSecretIdAndReceiverEmailIn(
+            @Param("secretId") UUID secretId,
+            @Param("receiverEmails") Collection<String> receiverEmails);
+
     /**
      * Deletes all InvitationPendingActionEntities by groupId and receiverEmail.
      *
@@ -18,13 +18,6 @@ public interface RegistrationsRepository
         extends JpaRepository<RegistrationEntity, UUID>,
         JpaSpecificationExecutor<RegistrationEntity> {
 
-    /**
-     * @param token RegistrationEntity.token.
-     * @return Boolean indicating if a RegistrationEntity corresponding to the introduced token exists.
-     */
-    boolean existsByToken(
-            String token);
-
     /**
      * @param token RegistrationEntity.token.
      * @return The RegistrationEntity corresponding to the introduced token.
@@ -1,15 +1,28 @@
 package com.guardedbox.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.config.SpringContext;
 import com.guardedbox.entity.SecretEntity;
+import com.guardedbox.entity.projection.EntityChangeProjection;
 import com.guardedbox.entity.projection.SecretBaseProjection;
+import com.guardedbox.entity.projection.SecretListingProjection;
 import com.guardedbox.entity.projection.SecretMustRotateKeyProjection;
+import com.guardedbox.entity.projection.SecretSummaryProjection;
 import com.guardedbox.entity.projection.SecretValueProjection;
 
 /**
@@ -37,6 +50,13 @@ public interface SecretsRepository
     SecretValueProjection findValueBySecretId(
             UUID secretId);
 
+    /**
+     * @param secretIds Collection of SecretEntity.secretId.
+     * @return The List of SecretValueProjections corresponding to the introduced secretIds.
+     */
+    List<SecretValueProjection> findValueBySecretIdIn(
+            Collection<UUID> secretIds);
+
     /**
      * @param secretId SecretEntity.secretId.
      * @return The SecretMustRotateKeyProjection corresponding to the introduced secretId.
@@ -51,6 +71,106 @@ public interface SecretsRepository
     List<SecretEntity> findByOwnerAccountAccountId(
             UUID ownerAccountId);
 
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param pageable The page size.
+     * @return The first page of SecretEntities corresponding to the introduced owner accountId, ordered by secretId.
+     */
+    List<SecretEntity> findByOwnerAccountAccountIdOrderBySecretIdAsc(
+            UUID ownerAccountId,
+            Pageable pageable);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param secretId The secretId after which the page starts.
+     * @param pageable The page size.
+     * @return The page of SecretEntities corresponding to the introduced owner accountId after the introduced secretId,
+     *         ordered by secretId.
+     */
+    List<SecretEntity> findByOwnerAccountAccountIdAndSecretIdGreaterThanOrderBySecretIdAsc(
+            UUID ownerAccountId,
+            UUID secretId,
+            Pageable pageable);
+
+    /** Select clause of the SecretSummaryProjection queries. */
+    String SECRET_SUMMARY_SELECT = "select s.secretId as secretId, s.mustRotateKey as mustRotateKey, "
+            + "(select count(ss) from SharedSecretEntity ss where ss.secret = s) as numberOfSharings, "
+            + "(select count(em) from ExMemberEntity em where em.secret = s) as numberOfExMembers "
+            + "from SecretEntity s ";
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @return The List of SecretSummaryProjections corresponding to the introduced owner accountId, ordered by secretId.
+     */
+    @Query(SECRET_SUMMARY_SELECT
+            + "where s.ownerAccount.accountId = :ownerAccountId order by s.secretId")
+    List<SecretSummaryProjection> findSummaryByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param pageable The page size.
+     * @return The first page of SecretSummaryProjections corresponding to the introduced owner accountId, ordered by secretId.
+     */
+    @Query(SECRET_SUMMARY_SELECT
+            + "where s.ownerAccount.accountId = :ownerAccountId order by s.secretId")
+    List<SecretSummaryProjection> findSummaryByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId,
+            Pageable pageable);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param secretId The secretId after which the page starts.
+     * @param pageable The page size.
+     * @return The page of SecretSummaryProjections corresponding to the introduced owner accountId after the introduced
+     *         secretId, ordered by secretId.
+     */
+    @Query(SECRET_SUMMARY_SELECT
+            + "where s.ownerAccount.accountId = :ownerAccountId and s.secretId > :secretId order by s.secretId")
+    List<SecretSummaryProjection> findSummaryByOwnerAccountAccountIdAndSecretIdGreaterThan(
+            @Param("ownerAccountId") UUID ownerAccountId,
+            @Param("secretId") UUID secretId,
+            Pageable pageable);
+
+    /**
+     * Streams the secrets of an account row by row. The fetch size Integer.MIN_VALUE makes the MySQL driver read the rows as
+     * they are consumed instead of loading the whole result set, and the counts are retrieved by subqueries, so no other
+     * query has to be issued while the result set is open. It must be consumed within a transaction.
+     *
+     * @param ownerAccountId Account.accountId.
+     * @return The Stream of SecretListingProjections corresponding to the introduced owner accountId, ordered by secretId.
+     */
+    @Query("select s.secretId as secretId, s.mustRotateKey as mustRotateKey, s.value as value, s.encryptedKey as encryptedKey, "
+            + "(select count(ss) from SharedSecretEntity ss where ss.secret = s) as numberOfSharings, "
+            + "(select count(em) from ExMemberEntity em where em.secret = s) as numberOfExMembers "
+            + "from SecretEntity s where s.ownerAccount.accountId = :ownerAccountId order by s.secretId")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    Stream<SecretListingProjection> streamListingByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId);
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @return The List of EntityChangeProjections of the SecretEntities corresponding to the introduced owner accountId.
+     */
+    @Query("select s.secretId as id, s.version as version, s.lastModified as lastModified from SecretEntity s where s.ownerAccount.accountId = :ownerAccountId")
+    List<EntityChangeProjection> findChangeByOwnerAccountAccountId(
+            @Param("ownerAccountId") UUID ownerAccountId);
+
+    /**
+     * Sets the last modification time of all the SecretEntities shared with an account and increments their version, with a
+     * single statement.
+     *
+     * @param receiverAccountId SharedSecret.receiverAccount.accountId.
+     * @param lastModified The new SecretEntity.lastModified.
+     * @return The number of updated SecretEntities.
+     */
+    @Modifying
+    @Query("update SecretEntity s set s.lastModified = :lastModified, s.version = s.version + 1 "
+            + "where s.secretId in (select ss.secret.secretId from SharedSecretEntity ss where ss.receiverAccount.accountId = :receiverAccountId)")
+    int updateLastModifiedByReceiverAccountId(
+            @Param("receiverAccountId") UUID receiverAccountId,
+            @Param("lastModified") Timestamp lastModified);
+
     /**
      * @param <T> A projection type.
      * @param entity An entity.
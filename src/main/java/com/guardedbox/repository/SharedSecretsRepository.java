@@ -1,12 +1,17 @@
 package com.guardedbox.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.guardedbox.entity.SharedSecretEntity;
+import com.guardedbox.entity.projection.EntityChangeProjection;
 
 /**
  * Repository: SharedSecret.
@@ -34,6 +39,37 @@ public interface SharedSecretsRepository
     List<SharedSecretEntity> findByReceiverAccountAccountId(
             UUID accountId);
 
+    /**
+     * @param accountId Account.accountId.
+     * @param pageable The page size.
+     * @return The first page of SharedSecretEntities corresponding to the introduced receiver accountId, ordered by secretId.
+     */
+    List<SharedSecretEntity> findByReceiverAccountAccountIdOrderBySecretSecretIdAsc(
+            UUID accountId,
+            Pageable pageable);
+
+    /**
+     * @param accountId Account.accountId.
+     * @param secretId The secretId after which the page starts.
+     * @param pageable The page size.
+     * @return The page of SharedSecretEntities corresponding to the introduced receiver accountId after the introduced
+     *         secretId, ordered by secretId.
+     */
+    List<SharedSecretEntity> findByReceiverAccountAccountIdAndSecretSecretIdGreaterThanOrderBySecretSecretIdAsc(
+            UUID accountId,
+            UUID secretId,
+            Pageable pageable);
+
+    /**
+     * @param secretId Secret.secretId.
+     * @param receiverAccountIds Collection of Account.accountId.
+     * @return The List of SharedSecretEntities corresponding to the introduced secretId and any of the introduced receiver
+     *         accountIds.
+     */
+    List<SharedSecretEntity> findBySecretSecretIdAndReceiverAccountAccountIdIn(
+            UUID secretId,
+            Collection<UUID> receiverAccountIds);
+
     /**
      * @param accountId Account.accountId.
      * @return The List of SharedSecretEntity corresponding to Secrets corresponding to the introduced owner accountId.
@@ -41,4 +77,16 @@ public interface SharedSecretsRepository
     List<SharedSecretEntity> findBySecretOwnerAccountAccountId(
             UUID accountId);
 
+    /**
+     * @param accountId Account.accountId.
+     * @return The List of EntityChangeProjections of the Secrets shared with the introduced receiver accountId. Their
+     *         version is the sum of the ones of the SharedSecretEntity and its Secret, and their last modification time the
+     *         latest of both.
+     */
+    @Query("select s.secretId as id, ss.version + s.version as version, "
+            + "case when ss.lastModified > s.lastModified then ss.lastModified else s.lastModified end as lastModified "
+            + "from SharedSecretEntity ss join ss.secret s where ss.receiverAccount.accountId = :accountId")
+    List<EntityChangeProjection> findChangeByReceiverAccountAccountId(
+            @Param("accountId") UUID accountId);
+
 }
@@ -1,16 +1,33 @@
 package com.guardedbox.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.guardedbox.exception.ServiceException;
+
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Email Utils Service.
@@ -19,9 +36,13 @@ import lombok.RequiredArgsConstructor;
  *
  */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class EmailService {
 
+    /** Error code of the ServiceException thrown when an email cannot be queued. */
+    public static final String EMAIL_SERVICE_UNAVAILABLE_ERROR_CODE = "global.email-service-unavailable";
+
     /** Property: spring.mail.username. */
     @Value("${spring.mail.username}")
     private final String mailUsername;
@@ -34,9 +55,124 @@ public class EmailService {
     @Value("${spring.mail.bcc:}")
     private final String mailBcc;
 
+    /** Property: spring.mail.dispatcher-threads. */
+    @Value("${spring.mail.dispatcher-threads:2}")
+    private final Integer dispatcherThreads;
+
+    /** Property: spring.mail.queue-capacity. */
+    @Value("${spring.mail.queue-capacity:1000}")
+    private final Integer queueCapacity;
+
+    /** Property: spring.mail.max-batch-size. */
+    @Value("${spring.mail.max-batch-size:20}")
+    private final Integer maxBatchSize;
+
+    /** Property: spring.mail.max-attempts. */
+    @Value("${spring.mail.max-attempts:3}")
+    private final Integer maxAttempts;
+
+    /** Property: spring.mail.retry-backoff. */
+    @Value("${spring.mail.retry-backoff:1000}")
+    private final Long retryBackoff;
+
+    /** Property: spring.mail.queue-offer-timeout. */
+    @Value("${spring.mail.queue-offer-timeout:1000}")
+    private final Long queueOfferTimeout;
+
+    /** Property: spring.mail.stats-log-interval. */
+    @Value("${spring.mail.stats-log-interval:60000}")
+    private final Long statsLogInterval;
+
     /** JavaMailSender. */
     private final JavaMailSender javaMailSender;
 
+    /** Queue of emails pending to be sent asynchronously. */
+    private BlockingQueue<MimeMessage> queue;
+
+    /** Dispatcher threads. */
+    private List<Thread> dispatchers;
+
+    /** Number of sent emails. */
+    private final AtomicLong sentEmails = new AtomicLong();
+
+    /** Number of emails that could not be sent after all the attempts. */
+    private final AtomicLong failedEmails = new AtomicLong();
+
+    /** Number of send retries. */
+    private final AtomicLong retriedEmails = new AtomicLong();
+
+    /** Number of emails rejected because the queue was full. */
+    private final AtomicLong rejectedEmails = new AtomicLong();
+
+    /** Scheduler used to log the email statistics periodically. */
+    private ScheduledExecutorService statsLogger;
+
+    /** Statistics logged the last time, used to skip logging them again if nothing changed. */
+    private String lastLoggedStats;
+
+    /**
+     * This method gets called after the bean is created.
+     */
+    @PostConstruct
+    private void postConstruct() {
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        dispatchers = new ArrayList<>(dispatcherThreads);
+        for (int i = 0; i < dispatcherThreads; i++) {
+            Thread dispatcher = new Thread(this::dispatch, "email-dispatcher-" + i);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+            dispatchers.add(dispatcher);
+        }
+
+        if (statsLogInterval > 0) {
+            statsLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "email-stats-logger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            statsLogger.scheduleWithFixedDelay(this::logStats, statsLogInterval, statsLogInterval, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    /**
+     * This method gets called before the bean is destroyed.
+     */
+    @PreDestroy
+    private void preDestroy() {
+
+        if (statsLogger != null) {
+            statsLogger.shutdownNow();
+        }
+
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.interrupt();
+        }
+        for (Thread dispatcher : dispatchers) {
+            try {
+                dispatcher.join(retryBackoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // The emails still queued are sent with a single attempt, so the shutdown is not delayed by retries.
+        List<MimeMessage> pending = new ArrayList<>(queue.size());
+        queue.drainTo(pending);
+        if (!pending.isEmpty()) {
+            log.info(String.format("Sending %d queued emails before shutting down", pending.size()));
+            for (int i = 0; i < pending.size(); i += maxBatchSize) {
+                sendWithRetries(pending.subList(i, Math.min(i + maxBatchSize, pending.size())), 1);
+            }
+        }
+
+        logStats();
+
+    }
+
     /**
      * Sends an email.
      *
@@ -49,6 +185,70 @@ public class EmailService {
             String subject,
             String content) {
 
+        javaMailSender.send(createMimeMessage(to, subject, content));
+        sentEmails.incrementAndGet();
+
+    }
+
+    /**
+     * Sends an email asynchronously. The email is queued and sent by one of the dispatcher threads. If the queue is full,
+     * the caller waits for a free slot up to the queue offer timeout, and then the email is rejected.
+     *
+     * @param to Receiver.
+     * @param subject Subject.
+     * @param content HTML Content.
+     * @throws ServiceException If the email could not be queued, with the error code global.email-service-unavailable.
+     */
+    public void sendAsync(
+            String to,
+            String subject,
+            String content) {
+
+        MimeMessage mimeMessage = createMimeMessage(to, subject, content);
+
+        boolean queued = false;
+        try {
+            queued = queue.offer(mimeMessage, queueOfferTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queued) {
+            rejectedEmails.incrementAndGet();
+            throw new ServiceException(String.format("Email queue full (capacity %d), the email has been rejected", queueCapacity))
+                    .setErrorCode(EMAIL_SERVICE_UNAVAILABLE_ERROR_CODE);
+        }
+
+    }
+
+    /**
+     * Logs the email statistics, unless they have not changed since the last time they were logged.
+     */
+    private void logStats() {
+
+        String stats = String.format("Emails: sent %d, failed %d, retried %d, rejected %d, queued %d",
+                sentEmails.get(), failedEmails.get(), retriedEmails.get(), rejectedEmails.get(), queue.size());
+
+        if (!stats.equals(lastLoggedStats)) {
+            log.info(stats);
+            lastLoggedStats = stats;
+        }
+
+    }
+
+    /**
+     * Creates an email.
+     *
+     * @param to Receiver.
+     * @param subject Subject.
+     * @param content HTML Content.
+     * @return The MimeMessage.
+     */
+    private MimeMessage createMimeMessage(
+            String to,
+            String subject,
+            String content) {
+
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage);
 
@@ -70,32 +270,104 @@ public class EmailService {
             throw new MailSendException("Error setting the email attributes", e);
         }
 
-        javaMailSender.send(mimeMessage);
+        return mimeMessage;
 
     }
 
     /**
-     * Sends an email asynchronously.
+     * Dispatcher threads loop. Takes the queued emails in batches and sends each batch through a single connection.
+     */
+    private void dispatch() {
+
+        List<MimeMessage> batch = new ArrayList<>(maxBatchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            queue.drainTo(batch, maxBatchSize - 1);
+
+            try {
+                sendWithRetries(batch, maxAttempts);
+            } catch (RuntimeException e) {
+                log.error("Unexpected error dispatching emails", e);
+            }
+
+            batch.clear();
+
+        }
+
+    }
+
+    /**
+     * Sends a batch of emails through a single connection, retrying the failed ones with exponential backoff and jitter.
      *
-     * @param to Receiver.
-     * @param subject Subject.
-     * @param content HTML Content.
+     * @param mimeMessages The emails.
+     * @param maxAttempts Maximum number of attempts.
      */
-    public void sendAsync(
-            String to,
-            String subject,
-            String content) {
+    private void sendWithRetries(
+            List<MimeMessage> mimeMessages,
+            int maxAttempts) {
 
-        new Thread(new Runnable() {
+        List<MimeMessage> pending = mimeMessages;
 
-            @Override
-            public void run() {
+        for (int attempt = 1;; attempt++) {
 
-                send(to, subject, content);
+            List<MimeMessage> failed = new ArrayList<>();
+            MailException lastException = null;
 
+            try {
+
+                javaMailSender.send(pending.toArray(new MimeMessage[pending.size()]));
+
+            } catch (MailSendException e) {
+
+                lastException = e;
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    failed.addAll(pending);
+                } else {
+                    for (MimeMessage mimeMessage : pending) {
+                        if (failedMessages.containsKey(mimeMessage))
+                            failed.add(mimeMessage);
+                    }
+                }
+
+            } catch (MailException e) {
+
+                lastException = e;
+                failed.addAll(pending);
+
+            }
+
+            sentEmails.addAndGet(pending.size() - failed.size());
+
+            if (failed.isEmpty())
+                return;
+
+            if (attempt >= maxAttempts) {
+                failedEmails.addAndGet(failed.size());
+                log.error(String.format("Error sending %d emails after %d attempts", failed.size(), attempt), lastException);
+                return;
             }
 
-        }).start();
+            retriedEmails.addAndGet(failed.size());
+            pending = failed;
+
+            long backoff = retryBackoff << (attempt - 1);
+            try {
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedEmails.addAndGet(failed.size());
+                return;
+            }
+
+        }
 
     }
 
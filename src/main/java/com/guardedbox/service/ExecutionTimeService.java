@@ -1,6 +1,13 @@
 package com.guardedbox.service;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * Execution Time Service.
@@ -11,26 +18,51 @@ import org.springframework.stereotype.Service;
 @Service
 public class ExecutionTimeService {
 
+    /** Scheduler used to complete the deferred results once their required execution time has elapsed. */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "execution-time-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
-     * Fixes the execution time by making the current thread to sleep the difference between the elapsed time since the
-     * start time and the required execution time.
-     * 
+     * This method gets called before the bean is destroyed.
+     */
+    @PreDestroy
+    private void preDestroy() {
+
+        scheduler.shutdownNow();
+
+    }
+
+    /**
+     * Fixes the execution time without blocking the current thread. The returned deferred result is completed with the
+     * introduced result once the difference between the elapsed time since the start time and the required execution time
+     * has elapsed, so the request thread can be released in the meantime.
+     *
+     * @param <T> The result type.
      * @param startTime The start time.
      * @param requiredExecutionTime The required execution time.
+     * @param result The result.
+     * @return The deferred result.
      */
-    public void fix(
+    public <T> DeferredResult<T> fixAsync(
             long startTime,
-            long requiredExecutionTime) {
+            long requiredExecutionTime,
+            T result) {
+
+        DeferredResult<T> deferredResult = new DeferredResult<>();
 
         long elapsedTime = System.currentTimeMillis() - startTime;
 
         if (elapsedTime < requiredExecutionTime) {
-            try {
-                Thread.sleep(requiredExecutionTime - elapsedTime);
-            } catch (InterruptedException e) {
-            }
+            scheduler.schedule(() -> deferredResult.setResult(result), requiredExecutionTime - elapsedTime, TimeUnit.MILLISECONDS);
+        } else {
+            deferredResult.setResult(result);
         }
 
+        return deferredResult;
+
     }
 
 }
@@ -3,8 +3,11 @@ package com.guardedbox.service;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
 import javax.annotation.PostConstruct;
@@ -32,8 +35,8 @@ public class HiddenDerivationService {
     /** KeysProperties. */
     private final KeysProperties keysProperties;
 
-    /** Hidden derivation keys. */
-    private HashMap<Integer, byte[]> derivationKeys;
+    /** Per-thread Mac instances, initialized with the hidden derivation key of each length. */
+    private HashMap<Integer, ThreadLocal<Mac>> derivationMacs;
 
     /**
      * This method gets called after the bean is created.
@@ -41,7 +44,7 @@ public class HiddenDerivationService {
     @PostConstruct
     private void postConstruct() {
 
-        derivationKeys = new HashMap<>(keysProperties.getHiddenDerivation().size());
+        derivationMacs = new HashMap<>(keysProperties.getHiddenDerivation().size());
 
         for (Entry<Integer, String> entry : keysProperties.getHiddenDerivation().entrySet()) {
 
@@ -56,7 +59,18 @@ public class HiddenDerivationService {
                 throw new RuntimeException(String.format("Hidden derivation key of length %s contains %s bytes", keyLength, keyRaw.length));
             }
 
-            derivationKeys.put(keyLength, keyRaw);
+            String algorithm = "HmacSHA" + keyLength * 8;
+            SecretKeySpec keySpec = new SecretKeySpec(keyRaw, algorithm);
+
+            derivationMacs.put(keyLength, ThreadLocal.withInitial(() -> {
+                try {
+                    Mac mac = Mac.getInstance(algorithm);
+                    mac.init(keySpec);
+                    return mac;
+                } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                    throw new ServiceException("Error during the derivation process", e);
+                }
+            }));
 
         }
 
@@ -88,23 +102,46 @@ public class HiddenDerivationService {
             String source,
             int length) {
 
-        byte[] key = derivationKeys.get(length);
-        if (key == null) {
-            throw new ServiceException(String.format("No key of length %s was defined", length));
+        return getMac(length).doFinal(source.getBytes(StandardCharsets.UTF_8));
+
+    }
+
+    /**
+     * Derives an array of bytes from each of several sources and a secret key.
+     *
+     * @param sources The sources.
+     * @param length The length of the derived arrays of bytes.
+     * @return The List of derived arrays of bytes, in the iteration order of the sources.
+     */
+    public List<byte[]> deriveAll(
+            Collection<String> sources,
+            int length) {
+
+        Mac mac = getMac(length);
+
+        List<byte[]> derived = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            derived.add(mac.doFinal(source.getBytes(StandardCharsets.UTF_8)));
         }
 
-        try {
+        return derived;
 
-            String algorithm = "HmacSHA" + length * 8;
-            Mac mac = Mac.getInstance(algorithm);
-            SecretKeySpec keySpec = new SecretKeySpec(key, algorithm);
-            mac.init(keySpec);
-            return mac.doFinal(source.getBytes(StandardCharsets.UTF_8));
+    }
 
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new ServiceException("Error during the derivation process", e);
+    /**
+     * @param length The length of the key.
+     * @return The Mac of the current thread initialized with the hidden derivation key of the introduced length.
+     */
+    private Mac getMac(
+            int length) {
+
+        ThreadLocal<Mac> mac = derivationMacs.get(length);
+        if (mac == null) {
+            throw new ServiceException(String.format("No key of length %s was defined", length));
         }
 
+        return mac.get();
+
     }
 
 }
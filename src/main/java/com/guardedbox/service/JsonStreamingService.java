@@ -0,0 +1,76 @@
+package com.guardedbox.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Json Streaming Service.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class JsonStreamingService {
+
+    /** ObjectMapper. */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Builds a response whose body is a JSON array written element by element, as the introduced producer supplies them,
+     * instead of serializing a fully materialized list. The producer is run in an async request thread, so it must not
+     * depend on the request or security context of the current one.
+     *
+     * @param <T> The element type.
+     * @param producer Function that passes each one of the elements of the array to the consumer it receives.
+     * @return The response.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> toJsonArray(
+            Consumer<Consumer<T>> producer) {
+
+        StreamingResponseBody body = outputStream -> {
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            try {
+
+                generator.writeStartArray();
+
+                producer.accept(element -> {
+                    try {
+                        generator.writeObject(element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                generator.writeEndArray();
+
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                generator.close();
+            }
+
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+
+    }
+
+}
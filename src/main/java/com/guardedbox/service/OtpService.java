@@ -1,5 +1,10 @@
 package com.guardedbox.service;
 
+import static com.guardedbox.constants.OtpHashMode.HMAC;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.List;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -7,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import com.guardedbox.dto.OtpDto;
 import com.guardedbox.dto.OtpResponseDto;
+import com.guardedbox.properties.CryptographyProperties;
 import com.guardedbox.properties.SecurityParametersProperties;
 
 import lombok.RequiredArgsConstructor;
@@ -21,9 +27,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OtpService {
 
+    /** Prefix of the one time passwords hashed with BCrypt. */
+    private static final String BCRYPT_PREFIX = "$2";
+
+    /** Prefix of the source of the HMAC of a one time password, to separate it from other derivations. */
+    private static final String HMAC_SOURCE_PREFIX = "otp:";
+
     /** SecurityParametersProperties. */
     private final SecurityParametersProperties securityParameters;
 
+    /** CryptographyProperties. */
+    private final CryptographyProperties cryptographyProperties;
+
     /** RandomService. */
     private final RandomService randomService;
 
@@ -33,11 +48,14 @@ public class OtpService {
     /** PasswordEncoder. */
     private final PasswordEncoder passwordEncoder;
 
+    /** HiddenDerivationService. */
+    private final HiddenDerivationService hiddenDerivationService;
+
     /**
      * Generates a one time password for an email and sends it.
      *
      * @param email The email.
-     * @return A one time password object, with the password encoded with the PasswordEncoder, its expiration time, and its associated email.
+     * @return A one time password object, with the password hashed according to the otp hash mode, its expiration time, and its associated email.
      */
     public OtpDto generateAndSendOtp(
             String email) {
@@ -50,7 +68,7 @@ public class OtpService {
 
         return new OtpDto()
                 .setEmail(email)
-                .setOtp(passwordEncoder.encode(otp))
+                .setOtp(HMAC.equals(securityParameters.getOtpHashMode()) ? hmac(email, otp) : passwordEncoder.encode(otp))
                 .setExpirationTime(currentTime + securityParameters.getOtpTtl());
 
     }
@@ -68,6 +86,9 @@ public class OtpService {
 
         long currentTime = System.currentTimeMillis();
 
+        String hmacEmail = null;
+        byte[] hmac = null;
+
         for (OtpDto otpDto : otpDtos) {
 
             // Verify expiration time.
@@ -76,8 +97,23 @@ public class OtpService {
             }
 
             // Verify one time password.
-            if (!passwordEncoder.matches(otpResponseDto.getOtp(), otpDto.getOtp())) {
-                continue;
+            if (otpDto.getOtp().startsWith(BCRYPT_PREFIX)) {
+
+                if (!passwordEncoder.matches(otpResponseDto.getOtp(), otpDto.getOtp())) {
+                    continue;
+                }
+
+            } else {
+
+                if (hmac == null || !hmacEmail.equals(otpDto.getEmail())) {
+                    hmacEmail = otpDto.getEmail();
+                    hmac = hmac(hmacEmail, otpResponseDto.getOtp()).getBytes(StandardCharsets.UTF_8);
+                }
+
+                if (!MessageDigest.isEqual(hmac, otpDto.getOtp().getBytes(StandardCharsets.UTF_8))) {
+                    continue;
+                }
+
             }
 
             return true;
@@ -88,4 +124,20 @@ public class OtpService {
 
     }
 
+    /**
+     * Computes the keyed HMAC of a one time password, bound to its email.
+     *
+     * @param email The email.
+     * @param otp The one time password.
+     * @return The HMAC encoded to base64.
+     */
+    private String hmac(
+            String email,
+            String otp) {
+
+        return hiddenDerivationService.deriveBase64(
+                HMAC_SOURCE_PREFIX + otp + ":" + email, cryptographyProperties.getCryptographyLength());
+
+    }
+
 }
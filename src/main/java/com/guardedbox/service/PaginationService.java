@@ -0,0 +1,41 @@
+package com.guardedbox.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.guardedbox.properties.PaginationProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pagination Service.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class PaginationService {
+
+    /** PaginationProperties. */
+    private final PaginationProperties paginationProperties;
+
+    /**
+     * Builds the Pageable used to request a page of a keyset paginated listing. Since the page start is set by the cursor,
+     * the Pageable always points to the first page and only limits its size.
+     *
+     * @param pageSize The requested page size. If null, the default page size is used. It is capped to the max page size.
+     * @return The Pageable.
+     */
+    public Pageable getPageable(
+            Integer pageSize) {
+
+        int size = pageSize == null ? paginationProperties.getDefaultPageSize() : pageSize;
+        size = Math.max(1, Math.min(size, paginationProperties.getMaxPageSize()));
+
+        return PageRequest.of(0, size);
+
+    }
+
+}
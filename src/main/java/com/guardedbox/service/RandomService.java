@@ -1,10 +1,18 @@
 package com.guardedbox.service;
 
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.guardedbox.properties.CryptographyProperties;
+
+import lombok.RequiredArgsConstructor;
 
 /**
  * Random Service.
@@ -13,13 +21,45 @@ import org.springframework.stereotype.Service;
  *
  */
 @Service
+@RequiredArgsConstructor
 public class RandomService {
 
     /** Alphanumeric charset. */
     private static final char[] ALPHANUMERIC_CHARSET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890".toCharArray();
 
-    /** Random generator. */
-    private final SecureRandom secureRandom = new SecureRandom();
+    /** CryptographyProperties. */
+    private final CryptographyProperties cryptographyProperties;
+
+    /** Per-thread random generators. */
+    private ThreadLocal<RandomGenerator> randomGenerators;
+
+    /**
+     * This method gets called after the bean is created.
+     */
+    @PostConstruct
+    private void postConstruct() {
+
+        String algorithm = cryptographyProperties.getSecureRandomAlgorithm();
+        Long reseedInterval = cryptographyProperties.getSecureRandomReseedInterval();
+
+        // Check the algorithm at startup instead of on the first request of each thread.
+        createSecureRandom(algorithm);
+
+        // Set randomGenerators.
+        randomGenerators = ThreadLocal.withInitial(() -> new RandomGenerator(
+                createSecureRandom(algorithm),
+                reseedInterval == null ? 0 : reseedInterval));
+
+    }
+
+    /**
+     * @return The SecureRandom of the current thread, reseeded if its reseed interval has elapsed.
+     */
+    private SecureRandom secureRandom() {
+
+        return randomGenerators.get().getSecureRandom();
+
+    }
 
     /**
      * Generates a random boolean.
@@ -28,7 +68,7 @@ public class RandomService {
      */
     public boolean randomBoolean() {
 
-        return secureRandom.nextBoolean();
+        return secureRandom().nextBoolean();
 
     }
 
@@ -39,7 +79,7 @@ public class RandomService {
      */
     public int randomInt() {
 
-        return secureRandom.nextInt();
+        return secureRandom().nextInt();
 
     }
 
@@ -74,7 +114,7 @@ public class RandomService {
      */
     public long randomLong() {
 
-        return secureRandom.nextLong();
+        return secureRandom().nextLong();
 
     }
 
@@ -109,7 +149,7 @@ public class RandomService {
      */
     public float randomFloat() {
 
-        return secureRandom.nextFloat();
+        return secureRandom().nextFloat();
 
     }
 
@@ -135,7 +175,7 @@ public class RandomService {
      */
     public double randomDouble() {
 
-        return secureRandom.nextDouble();
+        return secureRandom().nextDouble();
 
     }
 
@@ -165,12 +205,24 @@ public class RandomService {
 
         byte[] randomBytes = new byte[length];
 
-        secureRandom.nextBytes(randomBytes);
+        randomBytes(randomBytes);
 
         return randomBytes;
 
     }
 
+    /**
+     * Fills a preallocated array of bytes with random bytes.
+     *
+     * @param randomBytes The array.
+     */
+    public void randomBytes(
+            byte[] randomBytes) {
+
+        secureRandom().nextBytes(randomBytes);
+
+    }
+
     /**
      * Generates a random array of bytes of the introduced length and encodes it to hexadecimal format.
      *
@@ -211,6 +263,7 @@ public class RandomService {
             int length) {
 
         StringBuilder str = new StringBuilder(length);
+        SecureRandom secureRandom = secureRandom();
 
         for (int i = 0; i < length; i++) {
             str.append(ALPHANUMERIC_CHARSET[secureRandom.nextInt(ALPHANUMERIC_CHARSET.length)]);
@@ -220,4 +273,81 @@ public class RandomService {
 
     }
 
+    /**
+     * Creates a SecureRandom.
+     *
+     * @param algorithm The SecureRandom algorithm. If empty, the platform default is used.
+     * @return The SecureRandom.
+     */
+    private static SecureRandom createSecureRandom(
+            String algorithm) {
+
+        if (StringUtils.isEmpty(algorithm))
+            return new SecureRandom();
+
+        try {
+            return SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(String.format(
+                    "Error creating the SecureRandom corresponding to the algorithm %s", algorithm), e);
+        }
+
+    }
+
+    /**
+     * Random generator of a single thread.
+     */
+    private static class RandomGenerator {
+
+        /** SecureRandom. */
+        private final SecureRandom secureRandom;
+
+        /** Reseed interval (ms). 0 disables explicit reseeding. */
+        private final long reseedInterval;
+
+        /** Next reseed time. */
+        private long reseedTime;
+
+        /**
+         * Constructor.
+         *
+         * @param secureRandom SecureRandom.
+         * @param reseedInterval Reseed interval (ms). 0 disables explicit reseeding.
+         */
+        private RandomGenerator(
+                SecureRandom secureRandom,
+                long reseedInterval) {
+
+            this.secureRandom = secureRandom;
+            this.reseedInterval = reseedInterval;
+            this.reseedTime = System.currentTimeMillis() + reseedInterval;
+
+        }
+
+        /**
+         * @return The SecureRandom, reseeded if its reseed interval has elapsed.
+         */
+        private SecureRandom getSecureRandom() {
+
+            if (reseedInterval > 0) {
+
+                long currentTime = System.currentTimeMillis();
+
+                if (currentTime >= reseedTime) {
+                    try {
+                        secureRandom.reseed();
+                    } catch (UnsupportedOperationException e) {
+                        // Non-DRBG implementations either reseed continuously from the operating system or cannot be reseeded.
+                    }
+                    reseedTime = currentTime + reseedInterval;
+                }
+
+            }
+
+            return secureRandom;
+
+        }
+
+    }
+
 }
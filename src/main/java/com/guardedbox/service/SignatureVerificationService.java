@@ -12,6 +12,9 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 
@@ -46,6 +49,15 @@ public class SignatureVerificationService {
     /** Signature Algorithm Identifier. */
     private AlgorithmIdentifier signatureAlgorithmId;
 
+    /** Per-thread KeyFactory instances. */
+    private ThreadLocal<KeyFactory> keyFactories;
+
+    /** Per-thread Signature instances. */
+    private ThreadLocal<Signature> signatures;
+
+    /** LRU cache of decoded public keys of stored accounts, by base64 encoded public key. */
+    private Map<String, PublicKey> publicKeys;
+
     /**
      * This method gets called after the bean is created.
      */
@@ -64,6 +76,41 @@ public class SignatureVerificationService {
                     cryptographyProperties.getSignatureAlgorithm()));
         }
 
+        // Set keyFactories and signatures.
+        keyFactories = ThreadLocal.withInitial(() -> {
+            try {
+                return KeyFactory.getInstance(cryptographyProperties.getSignatureAlgorithm(), BouncyCastleProvider.PROVIDER_NAME);
+            } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
+                throw new RuntimeException(String.format(
+                        "Error creating the KeyFactory corresponding to the signature algorithm %s",
+                        cryptographyProperties.getSignatureAlgorithm()), e);
+            }
+        });
+
+        signatures = ThreadLocal.withInitial(() -> {
+            try {
+                return Signature.getInstance(cryptographyProperties.getSignatureAlgorithm(), BouncyCastleProvider.PROVIDER_NAME);
+            } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
+                throw new RuntimeException(String.format(
+                        "Error creating the Signature corresponding to the signature algorithm %s",
+                        cryptographyProperties.getSignatureAlgorithm()), e);
+            }
+        });
+
+        // Set publicKeys.
+        int publicKeysCacheSize = cryptographyProperties.getPublicKeysCacheSize();
+        publicKeys = Collections.synchronizedMap(new LinkedHashMap<String, PublicKey>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, PublicKey> eldest) {
+
+                return size() > publicKeysCacheSize;
+
+            }
+
+        });
+
     }
 
     /**
@@ -89,12 +136,18 @@ public class SignatureVerificationService {
             signingPublicKey = accountsService.getAndCheckAccountPublicKeysByEmail(email).getSigningPublicKey();
         }
 
-        return verifySignature(originalMessage, signedMessage, Base64.getDecoder().decode(signingPublicKey));
+        try {
+
+            return verifySignature(originalMessage, signedMessage, getPublicKey(signingPublicKey));
+
+        } catch (IOException | InvalidKeySpecException | IllegalArgumentException e) {
+            return false;
+        }
 
     }
 
     /**
-     * Verifies a signature.
+     * Verifies a signature. The public key is not cached, since it is not the one of a stored account.
      *
      * @param originalMessage The original message.
      * @param signedMessage The signature of the original message.
@@ -108,21 +161,81 @@ public class SignatureVerificationService {
 
         try {
 
-            KeyFactory keyFactory = KeyFactory.getInstance(cryptographyProperties.getSignatureAlgorithm(), BouncyCastleProvider.PROVIDER_NAME);
-            KeySpec keySpec = new X509EncodedKeySpec(new SubjectPublicKeyInfo(signatureAlgorithmId, signingPublicKey).getEncoded());
-            PublicKey pubKey = keyFactory.generatePublic(keySpec);
-            Signature signature = Signature.getInstance(cryptographyProperties.getSignatureAlgorithm(), BouncyCastleProvider.PROVIDER_NAME);
-            signature.initVerify(pubKey);
+            return verifySignature(originalMessage, signedMessage, decodePublicKey(signingPublicKey));
+
+        } catch (IOException | InvalidKeySpecException e) {
+            return false;
+        }
+
+    }
+
+    /**
+     * Verifies a signature.
+     *
+     * @param originalMessage The original message.
+     * @param signedMessage The signature of the original message.
+     * @param signingPublicKey The public key corresponding to the private key used to sign the message.
+     * @return Boolean indicating if the signature is verified.
+     */
+    private boolean verifySignature(
+            byte[] originalMessage,
+            byte[] signedMessage,
+            PublicKey signingPublicKey) {
+
+        Signature signature = signatures.get();
+
+        try {
+
+            signature.initVerify(signingPublicKey);
             signature.update(originalMessage);
 
             return signature.verify(signedMessage);
 
-        } catch (NoSuchAlgorithmException | NoSuchProviderException
-                | IOException | InvalidKeySpecException | InvalidKeyException
-                | SignatureException e) {
+        } catch (InvalidKeyException | SignatureException e) {
             return false;
         }
 
     }
 
+    /**
+     * Gets a decoded public key from the cache, decoding it and storing it in the cache if it is not present. It must only
+     * be used with public keys of stored accounts, so that client supplied keys cannot evict them.
+     *
+     * @param signingPublicKey The public key, encoded in base64.
+     * @return The decoded public key.
+     * @throws IOException If the public key cannot be encoded as SubjectPublicKeyInfo.
+     * @throws InvalidKeySpecException If the public key is not valid.
+     */
+    private PublicKey getPublicKey(
+            String signingPublicKey)
+            throws IOException, InvalidKeySpecException {
+
+        PublicKey pubKey = publicKeys.get(signingPublicKey);
+
+        if (pubKey == null) {
+            pubKey = decodePublicKey(Base64.getDecoder().decode(signingPublicKey));
+            publicKeys.put(signingPublicKey, pubKey);
+        }
+
+        return pubKey;
+
+    }
+
+    /**
+     * Decodes a public key.
+     *
+     * @param signingPublicKey The raw public key.
+     * @return The decoded public key.
+     * @throws IOException If the public key cannot be encoded as SubjectPublicKeyInfo.
+     * @throws InvalidKeySpecException If the public key is not valid.
+     */
+    private PublicKey decodePublicKey(
+            byte[] signingPublicKey)
+            throws IOException, InvalidKeySpecException {
+
+        KeySpec keySpec = new X509EncodedKeySpec(new SubjectPublicKeyInfo(signatureAlgorithmId, signingPublicKey).getEncoded());
+        return keyFactories.get().generatePublic(keySpec);
+
+    }
+
 }
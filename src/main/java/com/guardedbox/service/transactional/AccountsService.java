@@ -4,24 +4,30 @@ import static com.guardedbox.constants.ExMemberCause.ACCOUNT_WAS_DELETED;
 
 import java.sql.Timestamp;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import javax.annotation.PostConstruct;
 import javax.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import com.guardedbox.dto.AccountDto;
 import com.guardedbox.dto.CreateAccountDto;
 import com.guardedbox.entity.AccountEntity;
-import com.guardedbox.entity.ExMemberEntity;
-import com.guardedbox.entity.GroupParticipantEntity;
 import com.guardedbox.entity.InvitationPendingActionEntity;
 import com.guardedbox.entity.RegistrationEntity;
-import com.guardedbox.entity.SharedSecretEntity;
 import com.guardedbox.entity.projection.AccountBaseProjection;
 import com.guardedbox.entity.projection.AccountLoginPublicKeyProjection;
 import com.guardedbox.entity.projection.AccountLoginSaltProjection;
@@ -30,13 +36,18 @@ import com.guardedbox.entity.projection.AccountPublicKeysSaltsProjection;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.mapper.AccountsMapper;
 import com.guardedbox.properties.CryptographyProperties;
+import com.guardedbox.properties.SecurityParametersProperties;
 import com.guardedbox.repository.AccountsRepository;
 import com.guardedbox.repository.ExMembersRepository;
+import com.guardedbox.repository.GroupsRepository;
 import com.guardedbox.repository.InvitationPendingActionsRepository;
 import com.guardedbox.repository.RegistrationsRepository;
+import com.guardedbox.repository.SecretsRepository;
 import com.guardedbox.service.HiddenDerivationService;
 import com.guardedbox.service.MessagesService;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -53,12 +64,21 @@ public class AccountsService {
     /** CryptographyProperties. */
     private final CryptographyProperties cryptographyProperties;
 
+    /** SecurityParametersProperties. */
+    private final SecurityParametersProperties securityParameters;
+
     /** AccountsRepository. */
     private final AccountsRepository accountsRepository;
 
     /** RegistrationsRepository. */
     private final RegistrationsRepository registrationsRepository;
 
+    /** SecretsRepository. */
+    private final SecretsRepository secretsRepository;
+
+    /** GroupsRepository. */
+    private final GroupsRepository groupsRepository;
+
     /** ExMembersRepository. */
     private final ExMembersRepository exMembersRepository;
 
@@ -77,6 +97,31 @@ public class AccountsService {
     /** MessagesService. */
     private final MessagesService messagesService;
 
+    /** LRU cache of login salts, real or derived, by lower case email. It is local to this instance, see login-salt-cache-ttl. */
+    private Map<String, LoginSaltCacheEntry> loginSalts;
+
+    /**
+     * This method gets called after the bean is created.
+     */
+    @PostConstruct
+    private void postConstruct() {
+
+        // Set loginSalts.
+        int loginSaltCacheSize = securityParameters.getLoginSaltCacheSize();
+        loginSalts = Collections.synchronizedMap(new LinkedHashMap<String, LoginSaltCacheEntry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, LoginSaltCacheEntry> eldest) {
+
+                return size() > loginSaltCacheSize;
+
+            }
+
+        });
+
+    }
+
     /**
      * @param email Account.email.
      * @return The AccountDto corresponding to the introduced email. Checks if it exists.
@@ -95,15 +140,30 @@ public class AccountsService {
     public AccountDto getAndCheckAccountLoginSaltByEmail(
             String email) {
 
-        AccountDto account = accountsMapper.toDto(accountsRepository.findLoginSaltByEmail(email));
+        long currentTime = System.currentTimeMillis();
+
+        // Emails are compared case insensitively by the database, so the cache does it too.
+        String cacheKey = email.toLowerCase(Locale.ROOT);
+
+        // Real and derived salts are cached alike, so that a cache hit does not reveal if the email is registered.
+        LoginSaltCacheEntry cacheEntry = loginSalts.get(cacheKey);
+
+        if (cacheEntry == null || cacheEntry.getExpirationTime() <= currentTime) {
+
+            // The salt is always derived, so that a cache miss takes the same time whether the email is registered or not.
+            AccountLoginSaltProjection account = accountsRepository.findLoginSaltByEmail(email);
+            String derivedLoginSalt = hiddenDerivationService.deriveBase64(cacheKey, cryptographyProperties.getCryptographyLength());
+
+            cacheEntry = account == null
+                    ? new LoginSaltCacheEntry(null, derivedLoginSalt, currentTime + securityParameters.getLoginSaltCacheTtl())
+                    : new LoginSaltCacheEntry(account.getEmail(), account.getLoginSalt(), currentTime + securityParameters.getLoginSaltCacheTtl());
+            loginSalts.put(cacheKey, cacheEntry);
 
-        if (account == null) {
-            return new AccountDto()
-                    .setEmail(email)
-                    .setLoginSalt(hiddenDerivationService.deriveBase64(email, cryptographyProperties.getCryptographyLength()));
         }
 
-        return account;
+        return new AccountDto()
+                .setEmail(cacheEntry.getEmail() == null ? email : cacheEntry.getEmail())
+                .setLoginSalt(cacheEntry.getLoginSalt());
 
     }
 
@@ -179,6 +239,7 @@ public class AccountsService {
         }
 
         // Create the new account.
+        invalidateLoginSalt(email);
         AccountEntity accountEntity = accountsRepository.save(
                 accountsMapper.fromDto(createAccountDto)
                         .setCreationTime(new Timestamp(currentTime)));
@@ -201,8 +262,12 @@ public class AccountsService {
             if (!StringUtils.isEmpty(registration.getFromEmail()))
                 invitersEmails.add(registration.getFromEmail());
         }
+        Set<UUID> inviterAccountIds = new HashSet<>();
         for (InvitationPendingActionEntity invitationPendingAction : invitationPendingActionsRepository.findByReceiverEmail(email)) {
-            invitersEmails.add(invitationPendingAction.getFromAccount(AccountBaseProjection.class).getEmail());
+            inviterAccountIds.add(invitationPendingAction.getFromAccount().getAccountId());
+        }
+        for (AccountBaseProjection inviterAccount : AccountsRepository.getProjections(inviterAccountIds, AccountBaseProjection.class).values()) {
+            invitersEmails.add(inviterAccount.getEmail());
         }
         for (String inviterEmail : invitersEmails) {
             messagesService.sendInvitationCompleteMessage(inviterEmail, email);
@@ -221,19 +286,48 @@ public class AccountsService {
             UUID accountId) {
 
         AccountEntity account = accountsRepository.getOne(accountId);
+        invalidateLoginSalt(account.getEmail());
+
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+
+        // The secrets and groups are updated and the ex members inserted before the account is deleted, since they are
+        // selected from its sharings and participations.
+        secretsRepository.updateLastModifiedByReceiverAccountId(accountId, lastModified);
+        groupsRepository.updateLastModifiedByParticipantAccountId(accountId, lastModified);
+
+        exMembersRepository.insertSecretExMembersIfAbsentByReceiverAccountId(
+                accountId, account.getEmail(), ACCOUNT_WAS_DELETED.getCauseName());
+        exMembersRepository.insertGroupExMembersIfAbsentByParticipantAccountId(
+                accountId, account.getEmail(), ACCOUNT_WAS_DELETED.getCauseName());
+
         accountsRepository.delete(account);
 
-        for (SharedSecretEntity sharedSecret : account.getReceivedSharedSecrets()) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setSecret(sharedSecret.getSecret())
-                    .setEmail(account.getEmail())
-                    .setCause(ACCOUNT_WAS_DELETED.getCauseName()));
-        }
-        for (GroupParticipantEntity groupParticipant : account.getGroupParticipations()) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setGroup(groupParticipant.getGroup())
-                    .setEmail(account.getEmail())
-                    .setCause(ACCOUNT_WAS_DELETED.getCauseName()));
+    }
+
+    /**
+     * Removes the cached login salt of an email. It is removed again after the current transaction commits, so that a
+     * concurrent lookup cannot cache the salt read before the commit.
+     *
+     * @param email The email.
+     */
+    private void invalidateLoginSalt(
+            String email) {
+
+        String cacheKey = email.toLowerCase(Locale.ROOT);
+
+        loginSalts.remove(cacheKey);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+
+                    loginSalts.remove(cacheKey);
+
+                }
+
+            });
         }
 
     }
@@ -309,4 +403,48 @@ public class AccountsService {
 
     }
 
+    /**
+     * Finds the Account Base Projections corresponding to several emails with a single query and checks if all of them exist.
+     *
+     * @param emails The emails.
+     * @return Map of the Account Base Projections, by lower case email, since emails are compared case insensitively.
+     */
+    protected Map<String, AccountBaseProjection> findAndCheckAccountsByEmails(
+            Collection<String> emails) {
+
+        Map<String, AccountBaseProjection> accounts = new HashMap<>(emails.size());
+        for (AccountBaseProjection account : accountsRepository.findBaseByEmailIn(emails)) {
+            accounts.put(account.getEmail().toLowerCase(Locale.ROOT), account);
+        }
+
+        for (String email : emails) {
+            if (!accounts.containsKey(email.toLowerCase(Locale.ROOT))) {
+                throw new ServiceException(
+                        String.format("Email %s is not registered", email))
+                                .setErrorCode("accounts.email-not-registered").addAdditionalData("email", email);
+            }
+        }
+
+        return accounts;
+
+    }
+
+    /**
+     * Login salt cache entry.
+     */
+    @AllArgsConstructor
+    @Getter
+    private static class LoginSaltCacheEntry {
+
+        /** Stored email of the account, or null if the email is not registered. */
+        private final String email;
+
+        /** Login salt, real or derived. */
+        private final String loginSalt;
+
+        /** Expiration Time. */
+        private final long expirationTime;
+
+    }
+
 }
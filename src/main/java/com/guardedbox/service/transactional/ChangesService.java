@@ -0,0 +1,173 @@
+package com.guardedbox.service.transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import javax.transaction.Transactional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.guardedbox.dto.ChangesDto;
+import com.guardedbox.entity.projection.EntityChangeProjection;
+import com.guardedbox.repository.GroupParticipantsRepository;
+import com.guardedbox.repository.GroupsRepository;
+import com.guardedbox.repository.SecretsRepository;
+import com.guardedbox.repository.SharedSecretsRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service: Changes.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ChangesService {
+
+    /** SecretsRepository. */
+    private final SecretsRepository secretsRepository;
+
+    /** SharedSecretsRepository. */
+    private final SharedSecretsRepository sharedSecretsRepository;
+
+    /** GroupsRepository. */
+    private final GroupsRepository groupsRepository;
+
+    /** GroupParticipantsRepository. */
+    private final GroupParticipantsRepository groupParticipantsRepository;
+
+    /**
+     * Gets the IDs of the secrets and groups visible to an account, and the ones among them that changed since a time. The
+     * IDs not present any more in the lists correspond to secrets and groups that were deleted or unshared.
+     *
+     * @param accountId Account.accountId.
+     * @param since Time in milliseconds since the epoch. If null, all the secrets and groups are considered changed.
+     * @return ChangesDto with the IDs of the secrets and groups visible to the introduced accountId.
+     */
+    public ChangesDto getChanges(
+            UUID accountId,
+            Long since) {
+
+        ChangesDto changesDto = new ChangesDto()
+                .setTime(System.currentTimeMillis());
+
+        List<EntityChangeProjection> secrets = secretsRepository.findChangeByOwnerAccountAccountId(accountId);
+        changesDto
+                .setSecretIds(getIds(secrets, null))
+                .setChangedSecretIds(getIds(secrets, since));
+
+        List<EntityChangeProjection> receivedSecrets = sharedSecretsRepository.findChangeByReceiverAccountAccountId(accountId);
+        changesDto
+                .setReceivedSecretIds(getIds(receivedSecrets, null))
+                .setChangedReceivedSecretIds(getIds(receivedSecrets, since));
+
+        List<EntityChangeProjection> ownedGroups = groupsRepository.findChangeByOwnerAccountAccountId(accountId);
+        changesDto
+                .setOwnedGroupIds(getIds(ownedGroups, null))
+                .setChangedOwnedGroupIds(getIds(ownedGroups, since));
+
+        List<EntityChangeProjection> participantGroups = groupParticipantsRepository.findChangeByAccountAccountId(accountId);
+        changesDto
+                .setParticipantGroupIds(getIds(participantGroups, null))
+                .setChangedParticipantGroupIds(getIds(participantGroups, since));
+
+        return changesDto;
+
+    }
+
+    /**
+     * @param accountId Account.accountId.
+     * @return ETag of the secrets owned by the introduced accountId.
+     */
+    public String getSecretsEtag(
+            UUID accountId) {
+
+        return getEtag(secretsRepository.findChangeByOwnerAccountAccountId(accountId));
+
+    }
+
+    /**
+     * @param accountId Account.accountId.
+     * @return ETag of the secrets shared with the introduced accountId.
+     */
+    public String getReceivedSecretsEtag(
+            UUID accountId) {
+
+        return getEtag(sharedSecretsRepository.findChangeByReceiverAccountAccountId(accountId));
+
+    }
+
+    /**
+     * @param accountId Account.accountId.
+     * @return ETag of the groups owned by the introduced accountId.
+     */
+    public String getOwnedGroupsEtag(
+            UUID accountId) {
+
+        return getEtag(groupsRepository.findChangeByOwnerAccountAccountId(accountId));
+
+    }
+
+    /**
+     * @param accountId Account.accountId.
+     * @return ETag of the groups in which the introduced accountId is participant.
+     */
+    public String getParticipantGroupsEtag(
+            UUID accountId) {
+
+        return getEtag(groupParticipantsRepository.findChangeByAccountAccountId(accountId));
+
+    }
+
+    /**
+     * @param changes A List of EntityChangeProjections.
+     * @return An ETag derived from the IDs, versions and last modification times of the introduced EntityChangeProjections,
+     *         so it changes whenever one of them is added, modified or removed.
+     */
+    private String getEtag(
+            List<EntityChangeProjection> changes) {
+
+        List<EntityChangeProjection> sortedChanges = new ArrayList<>(changes);
+        sortedChanges.sort(Comparator.comparing(EntityChangeProjection::getId));
+
+        StringBuilder etagSource = new StringBuilder();
+        for (EntityChangeProjection change : sortedChanges) {
+            etagSource
+                    .append(change.getId()).append(':')
+                    .append(change.getVersion()).append(':')
+                    .append(change.getLastModified().getTime()).append(';');
+        }
+
+        return DigestUtils.md5DigestAsHex(etagSource.toString().getBytes(StandardCharsets.UTF_8));
+
+    }
+
+    /**
+     * @param changes A List of EntityChangeProjections.
+     * @param since Time in milliseconds since the epoch, or null.
+     * @return The IDs of the introduced EntityChangeProjections modified at or after the introduced time, or all of them if
+     *         it is null.
+     */
+    private List<UUID> getIds(
+            List<EntityChangeProjection> changes,
+            Long since) {
+
+        List<UUID> ids = new ArrayList<>(changes.size());
+        for (EntityChangeProjection change : changes) {
+            if (since == null || change.getLastModified().getTime() >= since) {
+                ids.add(change.getId());
+            }
+        }
+
+        return ids;
+
+    }
+
+}
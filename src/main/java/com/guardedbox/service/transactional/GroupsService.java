@@ -3,14 +3,18 @@ package com.guardedbox.service.transactional;
 import static com.guardedbox.constants.ExMemberCause.GROUP_PARTICIPANT_LEFT;
 import static com.guardedbox.constants.ExMemberCause.GROUP_PARTICIPANT_REMOVED_BY_OWNER;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AuthorizationServiceException;
 import org.springframework.stereotype.Service;
 
@@ -32,9 +36,12 @@ import com.guardedbox.entity.GroupParticipantEntity;
 import com.guardedbox.entity.GroupSecretEntity;
 import com.guardedbox.entity.projection.AccountBaseProjection;
 import com.guardedbox.entity.projection.AccountPublicKeysProjection;
+import com.guardedbox.entity.projection.GroupParticipantSummaryProjection;
+import com.guardedbox.entity.projection.GroupSummaryProjection;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.mapper.AccountsMapper;
 import com.guardedbox.mapper.GroupsMapper;
+import com.guardedbox.repository.AccountsRepository;
 import com.guardedbox.repository.ExMembersRepository;
 import com.guardedbox.repository.GroupParticipantsRepository;
 import com.guardedbox.repository.GroupSecretsRepository;
@@ -104,30 +111,61 @@ public class GroupsService {
 
     /**
      * @param ownerAccountId Account.accountId.
+     * @param includeSecrets Boolean indicating if the secrets of the groups must be included.
      * @return The List of GroupDtos corresponding to the introduced owner accountId.
      */
     public List<GroupDto> getGroupsByOwnerAccountId(
-            UUID ownerAccountId) {
+            UUID ownerAccountId,
+            boolean includeSecrets) {
+
+        return toOwnedGroupDtos(groupsRepository.findSummaryByOwnerAccountAccountId(ownerAccountId), includeSecrets);
+
+    }
 
-        List<GroupEntity> groupEntities = groupsRepository.findByOwnerAccountAccountId(ownerAccountId);
-        List<GroupDto> groupDtos = new ArrayList<>(groupEntities.size());
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param after Group.groupId after which the page starts, or null to get the first page.
+     * @param pageable The page size.
+     * @param includeSecrets Boolean indicating if the secrets of the groups must be included.
+     * @return A page of the List of GroupDtos corresponding to the introduced owner accountId, ordered by groupId.
+     */
+    public List<GroupDto> getGroupsByOwnerAccountId(
+            UUID ownerAccountId,
+            UUID after,
+            Pageable pageable,
+            boolean includeSecrets) {
 
-        for (GroupEntity groupEntity : groupEntities) {
+        return toOwnedGroupDtos(after == null
+                ? groupsRepository.findSummaryByOwnerAccountAccountId(ownerAccountId, pageable)
+                : groupsRepository.findSummaryByOwnerAccountAccountIdAndGroupIdGreaterThan(ownerAccountId, after, pageable),
+                includeSecrets);
 
-            GroupDto groupDto = groupsMapper.toDto(groupEntity)
-                    .setNumberOfParticipants(groupEntity.getParticipants().size())
-                    .setNumberOfExMembers(groupEntity.getExMembers().size());
+    }
 
-            groupDto.setSecrets(new ArrayList<>(groupEntity.getSecrets().size()));
-            for (GroupSecretEntity groupSecret : groupEntity.getSecrets()) {
-                SecretDto secret = new SecretDto()
-                        .setSecretId(groupSecret.getGroupSecretId())
-                        .setValue(groupSecret.getValue());
-                groupDto.getSecrets().add(secret);
-            }
+    /**
+     * @param groupProjections A List of GroupSummaryProjections of groups owned by an account.
+     * @param includeSecrets Boolean indicating if the secrets of the groups must be included.
+     * @return The List of GroupDtos corresponding to the introduced GroupSummaryProjections, as they are shown to their owner.
+     */
+    private List<GroupDto> toOwnedGroupDtos(
+            List<GroupSummaryProjection> groupProjections,
+            boolean includeSecrets) {
 
-            groupDtos.add(groupDto);
+        List<GroupDto> groupDtos = groupsMapper.summariesToDto(groupProjections);
 
+        if (!includeSecrets || groupDtos.isEmpty())
+            return groupDtos;
+
+        Map<UUID, List<SecretDto>> groupsSecrets = new HashMap<>();
+        for (GroupDto groupDto : groupDtos) {
+            groupDto.setSecrets(new ArrayList<>());
+            groupsSecrets.put(groupDto.getGroupId(), groupDto.getSecrets());
+        }
+        for (GroupSecretEntity groupSecret : groupSecretsRepository.findByGroupGroupIdIn(groupsSecrets.keySet())) {
+            SecretDto secret = new SecretDto()
+                    .setSecretId(groupSecret.getGroupSecretId())
+                    .setValue(groupSecret.getValue());
+            groupsSecrets.get(groupSecret.getGroup().getGroupId()).add(secret);
         }
 
         return groupDtos;
@@ -141,40 +179,69 @@ public class GroupsService {
     public List<GroupDto> getGroupsByParticipantAccountId(
             UUID accountId) {
 
-        List<GroupEntity> groupEntities = groupsRepository.findByParticipantsAccountAccountId(accountId);
-        List<GroupDto> groupDtos = new ArrayList<>(groupEntities.size());
+        return toParticipantGroupDtos(groupParticipantsRepository.findSummaryByAccountAccountId(accountId));
+
+    }
 
-        for (GroupEntity groupEntity : groupEntities) {
+    /**
+     * @param accountId Account.accountId.
+     * @param after Group.groupId after which the page starts, or null to get the first page.
+     * @param pageable The page size.
+     * @return A page of the List of GroupDtos in which the introduced accountId is participant, ordered by groupId.
+     */
+    public List<GroupDto> getGroupsByParticipantAccountId(
+            UUID accountId,
+            UUID after,
+            Pageable pageable) {
 
-            for (GroupParticipantEntity groupParticipant : groupEntity.getParticipants()) {
+        return toParticipantGroupDtos(after == null
+                ? groupParticipantsRepository.findSummaryByAccountAccountId(accountId, pageable)
+                : groupParticipantsRepository.findSummaryByAccountAccountIdAndGroupGroupIdGreaterThan(accountId, after, pageable));
 
-                if (accountId.equals(groupParticipant.getAccount().getAccountId())) {
+    }
 
-                    AccountDto ownerAccountDto = accountsMapper.toDto(groupEntity.getOwnerAccount(AccountPublicKeysProjection.class));
+    /**
+     * @param groupParticipants A List of GroupParticipantSummaryProjections of an account.
+     * @return The List of GroupDtos corresponding to the introduced GroupParticipantSummaryProjections, as they are shown to the participant.
+     */
+    private List<GroupDto> toParticipantGroupDtos(
+            List<GroupParticipantSummaryProjection> groupParticipants) {
 
-                    GroupDto groupDto = groupsMapper.toDto(groupEntity)
-                            .setOwnerAccount(ownerAccountDto)
-                            .setEncryptedKey(groupParticipant.getEncryptedKey())
-                            .setSecrets(new ArrayList<>(groupEntity.getSecrets().size()));
+        List<GroupDto> groupDtos = new ArrayList<>(groupParticipants.size());
 
-                    if (groupEntity.getParticipantsVisible()) {
-                        groupDto.setNumberOfParticipants(groupEntity.getParticipants().size());
-                    }
+        if (groupParticipants.isEmpty())
+            return groupDtos;
 
-                    for (GroupSecretEntity groupSecret : groupEntity.getSecrets()) {
-                        SecretDto secret = new SecretDto()
-                                .setSecretId(groupSecret.getGroupSecretId())
-                                .setValue(groupSecret.getValue());
-                        groupDto.getSecrets().add(secret);
-                    }
+        Set<UUID> ownerAccountIds = new HashSet<>();
+        Map<UUID, List<SecretDto>> groupsSecrets = new HashMap<>();
+        for (GroupParticipantSummaryProjection groupParticipant : groupParticipants) {
+            ownerAccountIds.add(groupParticipant.getOwnerAccountId());
+            groupsSecrets.put(groupParticipant.getGroupId(), new ArrayList<>());
+        }
+        Map<UUID, AccountPublicKeysProjection> ownerAccounts = AccountsRepository.getProjections(ownerAccountIds, AccountPublicKeysProjection.class);
+        for (GroupSecretEntity groupSecret : groupSecretsRepository.findByGroupGroupIdIn(groupsSecrets.keySet())) {
+            SecretDto secret = new SecretDto()
+                    .setSecretId(groupSecret.getGroupSecretId())
+                    .setValue(groupSecret.getValue());
+            groupsSecrets.get(groupSecret.getGroup().getGroupId()).add(secret);
+        }
 
-                    groupDtos.add(groupDto);
+        for (GroupParticipantSummaryProjection groupParticipant : groupParticipants) {
 
-                    break;
-                }
+            GroupDto groupDto = new GroupDto()
+                    .setGroupId(groupParticipant.getGroupId())
+                    .setName(groupParticipant.getName())
+                    .setEncryptedKey(groupParticipant.getEncryptedKey())
+                    .setParticipantsVisible(groupParticipant.getParticipantsVisible())
+                    .setOwnerAccount(accountsMapper.toDto(ownerAccounts.get(groupParticipant.getOwnerAccountId())))
+                    .setSecrets(groupsSecrets.get(groupParticipant.getGroupId()));
 
+            if (groupParticipant.getParticipantsVisible()) {
+                groupDto.setNumberOfParticipants(groupParticipant.getNumberOfParticipants().intValue());
             }
 
+            groupDtos.add(groupDto);
+
         }
 
         return groupDtos;
@@ -198,9 +265,12 @@ public class GroupsService {
                             .setErrorCode("groups.you-cannot-view-group-participants");
         }
 
+        Map<UUID, AccountPublicKeysProjection> participantAccounts = AccountsRepository.getProjections(
+                getParticipantAccountIds(group), AccountPublicKeysProjection.class);
+
         List<AccountDto> participants = new ArrayList<>(group.getParticipants().size());
         for (GroupParticipantEntity groupParticipant : group.getParticipants()) {
-            AccountDto participant = accountsMapper.toDto(groupParticipant.getAccount(AccountPublicKeysProjection.class));
+            AccountDto participant = accountsMapper.toDto(participantAccounts.get(groupParticipant.getAccount().getAccountId()));
             participants.add(participant);
         }
 
@@ -262,7 +332,8 @@ public class GroupsService {
 
         GroupEntity group = groupsMapper.fromDto(createGroupDto)
                 .setOwnerAccount(new AccountEntity().setAccountId(ownerAccountId))
-                .setMustRotateKey(false);
+                .setMustRotateKey(false)
+                .setLastModified(new Timestamp(System.currentTimeMillis()));
 
         return groupsMapper.toDto(groupsRepository.save(group));
 
@@ -280,6 +351,7 @@ public class GroupsService {
             EditGroupDto editGroupDto) {
 
         GroupEntity group = findAndCheckGroup(editGroupDto.getGroupId(), ownerAccountId, false);
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
 
         if (group.getMustRotateKey() && (editGroupDto.getSecrets() == null || editGroupDto.getParticipants() == null)) {
             throw new ServiceException(String.format(
@@ -295,14 +367,18 @@ public class GroupsService {
             for (ShareSecretDto editGroupParticipant : editGroupDto.getParticipants()) {
                 editGroupParticipants.put(editGroupParticipant.getEmail(), editGroupParticipant);
             }
+            Map<UUID, AccountBaseProjection> participantAccounts = AccountsRepository.getProjections(
+                    getParticipantAccountIds(group), AccountBaseProjection.class);
             for (GroupParticipantEntity participant : group.getParticipants()) {
                 ShareSecretDto editGroupParticipant = editGroupParticipants.get(
-                        participant.getAccount(AccountBaseProjection.class).getEmail());
+                        participantAccounts.get(participant.getAccount().getAccountId()).getEmail());
                 if (editGroupParticipant == null) {
                     throw new ServiceException(String.format(
                             "Edit group participants do not match group %s current participants", editGroupDto.getGroupId()));
                 }
-                participant.setEncryptedKey(editGroupParticipant.getEncryptedKey());
+                participant
+                        .setEncryptedKey(editGroupParticipant.getEncryptedKey())
+                        .setLastModified(lastModified);
             }
         }
 
@@ -329,7 +405,8 @@ public class GroupsService {
                 .setName(editGroupDto.getName())
                 .setEncryptedKey(editGroupDto.getEncryptedKey())
                 .setParticipantsVisible(editGroupDto.getParticipantsVisible())
-                .setMustRotateKey(false);
+                .setMustRotateKey(false)
+                .setLastModified(lastModified);
 
         return groupsMapper.toDto(groupsRepository.save(group));
 
@@ -363,12 +440,16 @@ public class GroupsService {
             }
         }
 
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+
         GroupParticipantEntity groupParticipant = new GroupParticipantEntity()
                 .setGroup(group)
                 .setAccount(new AccountEntity().setAccountId(account.getAccountId()))
-                .setEncryptedKey(addParticipantToGroupDto.getEncryptedKey());
+                .setEncryptedKey(addParticipantToGroupDto.getEncryptedKey())
+                .setLastModified(lastModified);
 
         groupParticipantsRepository.save(groupParticipant);
+        groupsRepository.save(group.setLastModified(lastModified));
 
         exMembersRepository.deleteByGroupGroupIdAndEmail(
                 addParticipantToGroupDto.getGroupId(), addParticipantToGroupDto.getEmail());
@@ -400,6 +481,7 @@ public class GroupsService {
                 .setGroup(group)
                 .setValue(addSecretToGroupDto.getValue());
         groupSecret = groupSecretsRepository.save(groupSecret);
+        groupsRepository.save(group.setLastModified(new Timestamp(System.currentTimeMillis())));
 
         return new SecretDto()
                 .setSecretId(groupSecret.getGroupSecretId())
@@ -425,13 +507,10 @@ public class GroupsService {
                     "Group %s must rotate key", editGroupSecretDto.getGroupId()));
         }
 
-        for (GroupSecretEntity groupSecret : group.getSecrets()) {
-            if (groupSecret.getGroupSecretId().equals(editGroupSecretDto.getSecretId())) {
-                groupSecret.setValue(editGroupSecretDto.getValue());
-            }
-        }
+        groupSecretsRepository.updateValueByGroupSecretIdAndGroupGroupId(
+                editGroupSecretDto.getSecretId(), editGroupSecretDto.getGroupId(), editGroupSecretDto.getValue());
 
-        groupsRepository.save(group);
+        groupsRepository.save(group.setLastModified(new Timestamp(System.currentTimeMillis())));
 
         return new SecretDto()
                 .setSecretId(editGroupSecretDto.getSecretId())
@@ -469,21 +548,12 @@ public class GroupsService {
             String email) {
 
         GroupEntity group = findAndCheckGroup(groupId, ownerAccountId, false);
-        groupsRepository.save(group.setMustRotateKey(true));
+        groupsRepository.save(group.setMustRotateKey(true).setLastModified(new Timestamp(System.currentTimeMillis())));
 
-        for (int i = 0; i < group.getParticipants().size(); i++) {
-            GroupParticipantEntity participant = group.getParticipants().get(i);
-            if (email.equals(participant.getAccount(AccountBaseProjection.class).getEmail())) {
-                group.getParticipants().remove(i);
-            }
-        }
+        groupParticipantsRepository.deleteByGroupGroupIdAndAccountEmail(groupId, email);
 
-        if (!exMembersRepository.existsByGroupGroupIdAndEmail(group.getGroupId(), email)) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setGroup(group)
-                    .setEmail(email)
-                    .setCause(GROUP_PARTICIPANT_REMOVED_BY_OWNER.getCauseName()));
-        }
+        exMembersRepository.insertGroupExMemberIfAbsent(
+                UUID.randomUUID(), groupId, email, GROUP_PARTICIPANT_REMOVED_BY_OWNER.getCauseName());
 
     }
 
@@ -498,7 +568,7 @@ public class GroupsService {
             UUID participantAccountId) {
 
         GroupEntity group = findAndCheckGroup(groupId, null, false);
-        groupsRepository.save(group.setMustRotateKey(true));
+        groupsRepository.save(group.setMustRotateKey(true).setLastModified(new Timestamp(System.currentTimeMillis())));
 
         GroupParticipantEntity groupParticipant = groupParticipantsRepository.findByGroupGroupIdAndAccountAccountId(groupId, participantAccountId);
         if (groupParticipant == null) {
@@ -510,12 +580,8 @@ public class GroupsService {
         groupParticipantsRepository.delete(groupParticipant);
 
         String email = groupParticipant.getAccount(AccountBaseProjection.class).getEmail();
-        if (!exMembersRepository.existsByGroupGroupIdAndEmail(group.getGroupId(), email)) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setGroup(group)
-                    .setEmail(email)
-                    .setCause(GROUP_PARTICIPANT_LEFT.getCauseName()));
-        }
+        exMembersRepository.insertGroupExMemberIfAbsent(
+                UUID.randomUUID(), group.getGroupId(), email, GROUP_PARTICIPANT_LEFT.getCauseName());
 
     }
 
@@ -531,7 +597,8 @@ public class GroupsService {
             UUID groupId,
             String email) {
 
-        findAndCheckGroup(groupId, ownerAccountId, false);
+        GroupEntity group = findAndCheckGroup(groupId, ownerAccountId, false);
+        groupsRepository.save(group.setLastModified(new Timestamp(System.currentTimeMillis())));
 
         exMembersRepository.deleteByGroupGroupIdAndEmail(groupId, email);
 
@@ -550,14 +617,26 @@ public class GroupsService {
             UUID groupSecretId) {
 
         GroupEntity group = findAndCheckGroup(groupId, ownerAccountId, false);
+        groupsRepository.save(group.setLastModified(new Timestamp(System.currentTimeMillis())));
 
-        for (int i = 0; i < group.getSecrets().size(); i++) {
-            GroupSecretEntity secret = group.getSecrets().get(i);
-            if (groupSecretId.equals(secret.getGroupSecretId())) {
-                group.getSecrets().remove(i);
-            }
+        groupSecretsRepository.deleteByGroupSecretIdAndGroupGroupId(groupSecretId, groupId);
+
+    }
+
+    /**
+     * @param group A Group.
+     * @return The Set of accountIds of the participants of the introduced Group.
+     */
+    private Set<UUID> getParticipantAccountIds(
+            GroupEntity group) {
+
+        Set<UUID> participantAccountIds = new HashSet<>(group.getParticipants().size());
+        for (GroupParticipantEntity participant : group.getParticipants()) {
+            participantAccountIds.add(participant.getAccount().getAccountId());
         }
 
+        return participantAccountIds;
+
     }
 
     /**
@@ -582,15 +661,8 @@ public class GroupsService {
 
         if (accountId != null) {
             if (!accountId.equals(group.getOwnerAccount().getAccountId())) {
-                boolean allowedBecauseParticipant = false;
-                if (participantAllowed) {
-                    for (GroupParticipantEntity participant : group.getParticipants()) {
-                        if (accountId.equals(participant.getAccount().getAccountId())) {
-                            allowedBecauseParticipant = true;
-                            break;
-                        }
-                    }
-                }
+                boolean allowedBecauseParticipant = participantAllowed
+                        && groupParticipantsRepository.existsByGroupGroupIdAndAccountAccountId(groupId, accountId);
                 if (!allowedBecauseParticipant) {
                     throw new AuthorizationServiceException(String.format(
                             "Group %s cannot be managed by account %s", groupId, accountId));
@@ -1,7 +1,10 @@
 package com.guardedbox.service.transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.transaction.Transactional;
@@ -15,6 +18,7 @@ import com.guardedbox.entity.AccountEntity;
 import com.guardedbox.entity.GroupEntity;
 import com.guardedbox.entity.InvitationPendingActionEntity;
 import com.guardedbox.entity.SecretEntity;
+import com.guardedbox.entity.projection.AccountBaseProjection;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.repository.AccountsRepository;
 import com.guardedbox.repository.InvitationPendingActionsRepository;
@@ -59,13 +63,14 @@ public class InvitationPendingActionsService {
         // Find and map all invitation pending actions associated to the secretId.
         List<InvitationPendingActionEntity> invitationPendingActionEntities = invitationPendingActionsRepository.findBySecretSecretId(secretId);
         List<InvitationPendingActionDto> invitationPendingActionDtos = new ArrayList<>(invitationPendingActionEntities.size());
+        Set<String> registeredEmails = getRegisteredReceiverEmails(invitationPendingActionEntities);
 
         for (InvitationPendingActionEntity invitationPendingActionEntity : invitationPendingActionEntities) {
             invitationPendingActionDtos.add(new InvitationPendingActionDto()
                     .setInvitationPendingActionId(invitationPendingActionEntity.getInvitationPendingActionId())
                     .setReceiverEmail(invitationPendingActionEntity.getReceiverEmail())
                     .setSecretId(invitationPendingActionEntity.getSecret().getSecretId())
-                    .setEmailRegistered(accountsRepository.existsByEmail(invitationPendingActionEntity.getReceiverEmail())));
+                    .setEmailRegistered(registeredEmails.contains(invitationPendingActionEntity.getReceiverEmail().toLowerCase(Locale.ROOT))));
         }
 
         return invitationPendingActionDtos;
@@ -87,13 +92,14 @@ public class InvitationPendingActionsService {
         // Find and map all invitation pending actions associated to the groupId.
         List<InvitationPendingActionEntity> invitationPendingActionEntities = invitationPendingActionsRepository.findByGroupGroupId(groupId);
         List<InvitationPendingActionDto> invitationPendingActionDtos = new ArrayList<>(invitationPendingActionEntities.size());
+        Set<String> registeredEmails = getRegisteredReceiverEmails(invitationPendingActionEntities);
 
         for (InvitationPendingActionEntity invitationPendingActionEntity : invitationPendingActionEntities) {
             invitationPendingActionDtos.add(new InvitationPendingActionDto()
                     .setInvitationPendingActionId(invitationPendingActionEntity.getInvitationPendingActionId())
                     .setReceiverEmail(invitationPendingActionEntity.getReceiverEmail())
                     .setGroupId(invitationPendingActionEntity.getGroup().getGroupId())
-                    .setEmailRegistered(accountsRepository.existsByEmail(invitationPendingActionEntity.getReceiverEmail())));
+                    .setEmailRegistered(registeredEmails.contains(invitationPendingActionEntity.getReceiverEmail().toLowerCase(Locale.ROOT))));
         }
 
         return invitationPendingActionDtos;
@@ -200,4 +206,29 @@ public class InvitationPendingActionsService {
 
     }
 
+    /**
+     * @param invitationPendingActionEntities A List of InvitationPendingActionEntities.
+     * @return The Set of receiver emails of the introduced InvitationPendingActionEntities that are already registered, in
+     *         lower case, since emails are compared case insensitively by the database.
+     */
+    private Set<String> getRegisteredReceiverEmails(
+            List<InvitationPendingActionEntity> invitationPendingActionEntities) {
+
+        Set<String> registeredEmails = new HashSet<>();
+        if (invitationPendingActionEntities.isEmpty())
+            return registeredEmails;
+
+        Set<String> receiverEmails = new HashSet<>(invitationPendingActionEntities.size());
+        for (InvitationPendingActionEntity invitationPendingActionEntity : invitationPendingActionEntities) {
+            receiverEmails.add(invitationPendingActionEntity.getReceiverEmail());
+        }
+
+        for (AccountBaseProjection account : accountsRepository.findBaseByEmailIn(receiverEmails)) {
+            registeredEmails.add(account.getEmail().toLowerCase(Locale.ROOT));
+        }
+
+        return registeredEmails;
+
+    }
+
 }
@@ -1,12 +1,18 @@
 package com.guardedbox.service.transactional;
 
+import java.sql.Timestamp;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AuthorizationServiceException;
 import org.springframework.stereotype.Service;
 
@@ -19,10 +25,12 @@ import com.guardedbox.entity.SecretEntity;
 import com.guardedbox.entity.SharedSecretEntity;
 import com.guardedbox.entity.projection.AccountBaseProjection;
 import com.guardedbox.entity.projection.SecretBaseProjection;
+import com.guardedbox.entity.projection.SecretListingProjection;
 import com.guardedbox.entity.projection.SecretMustRotateKeyProjection;
 import com.guardedbox.entity.projection.SecretValueProjection;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.mapper.SecretsMapper;
+import com.guardedbox.repository.AccountsRepository;
 import com.guardedbox.repository.SecretsRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -55,6 +63,88 @@ public class SecretsService {
 
     }
 
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param after Secret.secretId after which the page starts, or null to get the first page.
+     * @param pageable The page size.
+     * @return A page of the List of SecretDtos corresponding to the introduced owner accountId, ordered by secretId.
+     */
+    public List<SecretDto> getSecretsByOwnerAccountId(
+            UUID ownerAccountId,
+            UUID after,
+            Pageable pageable) {
+
+        return secretsMapper.toDto(after == null
+                ? secretsRepository.findByOwnerAccountAccountIdOrderBySecretIdAsc(ownerAccountId, pageable)
+                : secretsRepository.findByOwnerAccountAccountIdAndSecretIdGreaterThanOrderBySecretIdAsc(ownerAccountId, after, pageable));
+
+    }
+
+    /**
+     * Streams the SecretDtos corresponding to the introduced owner accountId, ordered by secretId. Each one is passed to the
+     * introduced consumer as soon as its row is read, so the whole list is never held in memory.
+     *
+     * @param ownerAccountId Account.accountId.
+     * @param consumer The consumer of the SecretDtos.
+     */
+    public void streamSecretsByOwnerAccountId(
+            UUID ownerAccountId,
+            Consumer<SecretDto> consumer) {
+
+        try (Stream<SecretListingProjection> secrets = secretsRepository.streamListingByOwnerAccountAccountId(ownerAccountId)) {
+            secrets.forEach(secret -> consumer.accept(secretsMapper.toDto(secret)));
+        }
+
+    }
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @return The List of SecretDtos corresponding to the introduced owner accountId, ordered by secretId, without their
+     *         values and with their number of sharings and ex members.
+     */
+    public List<SecretDto> getSecretSummariesByOwnerAccountId(
+            UUID ownerAccountId) {
+
+        return secretsMapper.summariesToDto(secretsRepository.findSummaryByOwnerAccountAccountId(ownerAccountId));
+
+    }
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param after Secret.secretId after which the page starts, or null to get the first page.
+     * @param pageable The page size.
+     * @return A page of the List of SecretDtos corresponding to the introduced owner accountId, ordered by secretId, without
+     *         their values and with their number of sharings and ex members.
+     */
+    public List<SecretDto> getSecretSummariesByOwnerAccountId(
+            UUID ownerAccountId,
+            UUID after,
+            Pageable pageable) {
+
+        return secretsMapper.summariesToDto(after == null
+                ? secretsRepository.findSummaryByOwnerAccountAccountId(ownerAccountId, pageable)
+                : secretsRepository.findSummaryByOwnerAccountAccountIdAndSecretIdGreaterThan(ownerAccountId, after, pageable));
+
+    }
+
+    /**
+     * @param ownerAccountId Account.accountId.
+     * @param secretId Secret.secretId.
+     * @return SecretDto with the value and encrypted key of the secret corresponding to the introduced secretId.
+     */
+    public SecretDto getSecretValue(
+            UUID ownerAccountId,
+            UUID secretId) {
+
+        SecretEntity secret = findAndCheckSecret(secretId, ownerAccountId);
+
+        return new SecretDto()
+                .setSecretId(secret.getSecretId())
+                .setValue(secret.getValue())
+                .setEncryptedKey(secret.getEncryptedKey());
+
+    }
+
     /**
      * @param ownerAccountId Account.accountId.
      * @param secretId Secret.secretId.
@@ -81,7 +171,8 @@ public class SecretsService {
 
         SecretEntity secret = secretsMapper.fromDto(createSecretDto)
                 .setOwnerAccount(new AccountEntity().setAccountId(ownerAccountId))
-                .setMustRotateKey(false);
+                .setMustRotateKey(false)
+                .setLastModified(new Timestamp(System.currentTimeMillis()));
 
         return secretsMapper.toDto(secretsRepository.save(secret));
 
@@ -101,6 +192,7 @@ public class SecretsService {
             EditSecretDto editSecretDto) {
 
         SecretEntity secret = findAndCheckSecret(secretId, ownerAccountId);
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
 
         if (secret.getMustRotateKey() && editSecretDto.getSharings() == null) {
             throw new ServiceException(String.format(
@@ -116,21 +208,29 @@ public class SecretsService {
             for (ShareSecretDto editSecretSharing : editSecretDto.getSharings()) {
                 editSecretSharings.put(editSecretSharing.getEmail(), editSecretSharing);
             }
+            Set<UUID> receiverAccountIds = new HashSet<>(secret.getSharedSecrets().size());
+            for (SharedSecretEntity sharedSecret : secret.getSharedSecrets()) {
+                receiverAccountIds.add(sharedSecret.getReceiverAccount().getAccountId());
+            }
+            Map<UUID, AccountBaseProjection> receiverAccounts = AccountsRepository.getProjections(receiverAccountIds, AccountBaseProjection.class);
             for (SharedSecretEntity sharedSecret : secret.getSharedSecrets()) {
                 ShareSecretDto editSecretSharing = editSecretSharings.get(
-                        sharedSecret.getReceiverAccount(AccountBaseProjection.class).getEmail());
+                        receiverAccounts.get(sharedSecret.getReceiverAccount().getAccountId()).getEmail());
                 if (editSecretSharing == null) {
                     throw new ServiceException(String.format(
                             "Edit secret sharings do not match secret %s current sharings", secretId));
                 }
-                sharedSecret.setEncryptedKey(editSecretSharing.getEncryptedKey());
+                sharedSecret
+                        .setEncryptedKey(editSecretSharing.getEncryptedKey())
+                        .setLastModified(lastModified);
             }
         }
 
         secret
                 .setValue(editSecretDto.getValue())
                 .setEncryptedKey(editSecretDto.getEncryptedKey())
-                .setMustRotateKey(false);
+                .setMustRotateKey(false)
+                .setLastModified(lastModified);
 
         return secretsMapper.toDto(secretsRepository.save(secret));
 
@@ -3,15 +3,21 @@ package com.guardedbox.service.transactional;
 import static com.guardedbox.constants.ExMemberCause.SECRET_REJECTED_BY_RECEIVER;
 import static com.guardedbox.constants.ExMemberCause.SECRET_UNSHARED_BY_OWNER;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.guardedbox.dto.AccountDto;
@@ -28,6 +34,7 @@ import com.guardedbox.entity.projection.SecretValueProjection;
 import com.guardedbox.exception.ServiceException;
 import com.guardedbox.mapper.AccountsMapper;
 import com.guardedbox.mapper.SecretsMapper;
+import com.guardedbox.repository.AccountsRepository;
 import com.guardedbox.repository.ExMembersRepository;
 import com.guardedbox.repository.InvitationPendingActionsRepository;
 import com.guardedbox.repository.SecretsRepository;
@@ -77,13 +84,57 @@ public class SharedSecretsService {
     public List<AccountDto> getSecretsSharedWithAccount(
             UUID receiverAccountId) {
 
-        Map<UUID, AccountDto> ownerAccountsWithSecrets = new HashMap<>();
-        List<SharedSecretEntity> receivedSharedSecrets = sharedSecretsRepository.findByReceiverAccountAccountId(receiverAccountId);
+        return toOwnerAccountsWithSecrets(sharedSecretsRepository.findByReceiverAccountAccountId(receiverAccountId));
+
+    }
+
+    /**
+     * @param receiverAccountId Account.accountId of the shared secrets receiver.
+     * @param after Secret.secretId after which the page starts, or null to get the first page.
+     * @param pageable The page size.
+     * @return A page of the List of secrets shared with the introduced accountId, ordered by secretId and grouped by owner
+     *         account. The secrets of an owner account may be split across several pages.
+     */
+    public List<AccountDto> getSecretsSharedWithAccount(
+            UUID receiverAccountId,
+            UUID after,
+            Pageable pageable) {
+
+        return toOwnerAccountsWithSecrets(after == null
+                ? sharedSecretsRepository.findByReceiverAccountAccountIdOrderBySecretSecretIdAsc(receiverAccountId, pageable)
+                : sharedSecretsRepository.findByReceiverAccountAccountIdAndSecretSecretIdGreaterThanOrderBySecretSecretIdAsc(
+                        receiverAccountId, after, pageable));
+
+    }
+
+    /**
+     * @param receivedSharedSecrets A List of SharedSecretEntities received by an account.
+     * @return The List of secrets of the introduced SharedSecretEntities, grouped by owner account.
+     */
+    private List<AccountDto> toOwnerAccountsWithSecrets(
+            List<SharedSecretEntity> receivedSharedSecrets) {
+
+        Map<UUID, AccountDto> ownerAccountsWithSecrets = new LinkedHashMap<>();
+
+        if (receivedSharedSecrets.isEmpty())
+            return new ArrayList<>();
+
+        Set<UUID> secretIds = new HashSet<>(receivedSharedSecrets.size());
+        for (SharedSecretEntity receivedSharedSecret : receivedSharedSecrets) {
+            secretIds.add(receivedSharedSecret.getSecret().getSecretId());
+        }
+        Map<UUID, SecretValueProjection> secrets = new HashMap<>(secretIds.size());
+        Set<UUID> ownerAccountIds = new HashSet<>();
+        for (SecretValueProjection secret : secretsRepository.findValueBySecretIdIn(secretIds)) {
+            secrets.put(secret.getSecretId(), secret);
+            ownerAccountIds.add(secret.getOwnerAccount().getAccountId());
+        }
+        Map<UUID, AccountPublicKeysProjection> ownerAccounts = AccountsRepository.getProjections(ownerAccountIds, AccountPublicKeysProjection.class);
 
         for (SharedSecretEntity receivedSharedSecret : receivedSharedSecrets) {
 
-            SecretValueProjection secret = receivedSharedSecret.getSecret(SecretValueProjection.class);
-            AccountPublicKeysProjection ownerAccount = secret.getOwnerAccount(AccountPublicKeysProjection.class);
+            SecretValueProjection secret = secrets.get(receivedSharedSecret.getSecret().getSecretId());
+            AccountPublicKeysProjection ownerAccount = ownerAccounts.get(secret.getOwnerAccount().getAccountId());
 
             AccountDto ownerAccountWithSecrets = ownerAccountsWithSecrets.get(ownerAccount.getAccountId());
             if (ownerAccountWithSecrets == null) {
@@ -112,9 +163,16 @@ public class SharedSecretsService {
         SecretEntity secret = secretsService.findAndCheckSecret(secretId, ownerAccountId);
         List<SharedSecretEntity> sharedSecrets = secret.getSharedSecrets();
 
+        Set<UUID> receiverAccountIds = new HashSet<>(sharedSecrets.size());
+        for (SharedSecretEntity sharedSecret : sharedSecrets) {
+            receiverAccountIds.add(sharedSecret.getReceiverAccount().getAccountId());
+        }
+        Map<UUID, AccountPublicKeysProjection> receiverAccountProjections = AccountsRepository.getProjections(
+                receiverAccountIds, AccountPublicKeysProjection.class);
+
         List<AccountDto> receiverAccounts = new ArrayList<>(sharedSecrets.size());
         for (SharedSecretEntity sharedSecret : sharedSecrets) {
-            AccountDto receiverAccount = accountsMapper.toDto(sharedSecret.getReceiverAccount(AccountPublicKeysProjection.class));
+            AccountDto receiverAccount = accountsMapper.toDto(receiverAccountProjections.get(sharedSecret.getReceiverAccount().getAccountId()));
             receiverAccounts.add(receiverAccount);
         }
 
@@ -177,12 +235,16 @@ public class SharedSecretsService {
                             .addAdditionalData("email", shareSecretDto.getEmail());
         }
 
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+
         SharedSecretEntity sharedSecret = new SharedSecretEntity()
                 .setSecret(secret)
                 .setReceiverAccount(new AccountEntity().setAccountId(receiverAccount.getAccountId()))
-                .setEncryptedKey(shareSecretDto.getEncryptedKey());
+                .setEncryptedKey(shareSecretDto.getEncryptedKey())
+                .setLastModified(lastModified);
 
         sharedSecretsRepository.save(sharedSecret);
+        secretsRepository.save(secret.setLastModified(lastModified));
 
         exMembersRepository.deleteBySecretSecretIdAndEmail(
                 secretId, shareSecretDto.getEmail());
@@ -192,6 +254,80 @@ public class SharedSecretsService {
 
     }
 
+    /**
+     * Shares a secret with several accounts at once. The receiver accounts and their existing sharings are retrieved with a
+     * single query each, the new sharings are inserted in JDBC batches and the ex members and invitation pending actions of
+     * the receivers are deleted with a single statement each.
+     *
+     * @param ownerAccountId Account.accountId of the secret owner.
+     * @param secretId Secret.secretId of the secret to be shared.
+     * @param shareSecretDtos DTOs with the secret to be shared data, one per receiver.
+     */
+    public void shareSecret(
+            UUID ownerAccountId,
+            UUID secretId,
+            List<ShareSecretDto> shareSecretDtos) {
+
+        SecretEntity secret = secretsService.findAndCheckSecret(secretId, ownerAccountId);
+
+        Map<String, ShareSecretDto> sharings = new LinkedHashMap<>(shareSecretDtos.size());
+        for (ShareSecretDto shareSecretDto : shareSecretDtos) {
+            if (sharings.put(shareSecretDto.getEmail().toLowerCase(Locale.ROOT), shareSecretDto) != null) {
+                throw new ServiceException(String.format(
+                        "Email %s is repeated in the sharings of secret %s", shareSecretDto.getEmail(), secretId));
+            }
+        }
+
+        Set<String> receiverEmails = new HashSet<>(shareSecretDtos.size());
+        for (ShareSecretDto shareSecretDto : shareSecretDtos) {
+            receiverEmails.add(shareSecretDto.getEmail());
+        }
+
+        Map<String, AccountBaseProjection> receiverAccounts = accountsService.findAndCheckAccountsByEmails(receiverEmails);
+
+        Map<UUID, String> receiverAccountEmails = new HashMap<>(receiverAccounts.size());
+        for (Map.Entry<String, AccountBaseProjection> receiverAccount : receiverAccounts.entrySet()) {
+            String email = sharings.get(receiverAccount.getKey()).getEmail();
+            if (receiverAccount.getValue().getAccountId().equals(ownerAccountId)) {
+                throw new ServiceException(String.format(
+                        "Secret %s belongs to email %s", secretId, email))
+                                .setErrorCode("shared-secrets.do-not-self-share");
+            }
+            receiverAccountEmails.put(receiverAccount.getValue().getAccountId(), email);
+        }
+
+        List<SharedSecretEntity> alreadySharedSecrets = sharedSecretsRepository.findBySecretSecretIdAndReceiverAccountAccountIdIn(
+                secretId, receiverAccountEmails.keySet());
+        if (!alreadySharedSecrets.isEmpty()) {
+            String email = receiverAccountEmails.get(alreadySharedSecrets.get(0).getReceiverAccount().getAccountId());
+            throw new ServiceException(String.format(
+                    "Secret %s is already shared with email %s", secretId, email))
+                            .setErrorCode("shared-secrets.secret-already-shared-with-email")
+                            .addAdditionalData("email", email);
+        }
+
+        Timestamp lastModified = new Timestamp(System.currentTimeMillis());
+
+        List<SharedSecretEntity> sharedSecrets = new ArrayList<>(sharings.size());
+        for (Map.Entry<String, ShareSecretDto> sharing : sharings.entrySet()) {
+            sharedSecrets.add(new SharedSecretEntity()
+                    .setSecret(secret)
+                    .setReceiverAccount(new AccountEntity().setAccountId(receiverAccounts.get(sharing.getKey()).getAccountId()))
+                    .setEncryptedKey(sharing.getValue().getEncryptedKey())
+                    .setLastModified(lastModified));
+        }
+
+        sharedSecretsRepository.saveAll(sharedSecrets);
+        secretsRepository.save(secret.setLastModified(lastModified));
+
+        exMembersRepository.deleteBySecretSecretIdAndEmailIn(
+                secretId, receiverEmails);
+
+        invitationPendingActionsRepository.deleteBySecretSecretIdAndReceiverEmailIn(
+                secretId, receiverEmails);
+
+    }
+
     /**
      * Unshares a secret.
      *
@@ -205,7 +341,7 @@ public class SharedSecretsService {
             String receiverEmail) {
 
         SecretEntity secret = secretsService.findAndCheckSecret(secretId, ownerAccountId);
-        secretsRepository.save(secret.setMustRotateKey(true));
+        secretsRepository.save(secret.setMustRotateKey(true).setLastModified(new Timestamp(System.currentTimeMillis())));
 
         AccountBaseProjection reveiverAccount = accountsService.findAndCheckAccountByEmail(receiverEmail, AccountBaseProjection.class);
 
@@ -219,12 +355,8 @@ public class SharedSecretsService {
 
         sharedSecretsRepository.delete(sharedSecret);
 
-        if (!exMembersRepository.existsBySecretSecretIdAndEmail(secret.getSecretId(), receiverEmail)) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setSecret(secret)
-                    .setEmail(receiverEmail)
-                    .setCause(SECRET_UNSHARED_BY_OWNER.getCauseName()));
-        }
+        exMembersRepository.insertSecretExMemberIfAbsent(
+                UUID.randomUUID(), secret.getSecretId(), receiverEmail, SECRET_UNSHARED_BY_OWNER.getCauseName());
 
     }
 
@@ -239,7 +371,7 @@ public class SharedSecretsService {
             UUID receiverAccountId) {
 
         SecretEntity secret = secretsService.findAndCheckSecret(secretId, null);
-        secretsRepository.save(secret.setMustRotateKey(true));
+        secretsRepository.save(secret.setMustRotateKey(true).setLastModified(new Timestamp(System.currentTimeMillis())));
 
         SharedSecretEntity sharedSecret = sharedSecretsRepository.findBySecretSecretIdAndReceiverAccountAccountId(
                 secretId, receiverAccountId);
@@ -252,12 +384,8 @@ public class SharedSecretsService {
         sharedSecretsRepository.delete(sharedSecret);
 
         String receiverEmail = sharedSecret.getReceiverAccount(AccountBaseProjection.class).getEmail();
-        if (!exMembersRepository.existsBySecretSecretIdAndEmail(secret.getSecretId(), receiverEmail)) {
-            exMembersRepository.save(new ExMemberEntity()
-                    .setSecret(secret)
-                    .setEmail(receiverEmail)
-                    .setCause(SECRET_REJECTED_BY_RECEIVER.getCauseName()));
-        }
+        exMembersRepository.insertSecretExMemberIfAbsent(
+                UUID.randomUUID(), secret.getSecretId(), receiverEmail, SECRET_REJECTED_BY_RECEIVER.getCauseName());
 
     }
 
@@ -273,7 +401,8 @@ public class SharedSecretsService {
             UUID secretId,
             String email) {
 
-        secretsService.findAndCheckSecret(secretId, ownerAccountId);
+        SecretEntity secret = secretsService.findAndCheckSecret(secretId, ownerAccountId);
+        secretsRepository.save(secret.setLastModified(new Timestamp(System.currentTimeMillis())));
 
         exMembersRepository.deleteBySecretSecretIdAndEmail(secretId, email);
 
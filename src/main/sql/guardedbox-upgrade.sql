@@ -0,0 +1,76 @@
+--
+-- Upgrade of databases created with a previous version of guardedbox.sql.
+-- Each block adds the columns or the unique key on which the application now relies. Before adding a unique key, the
+-- duplicated rows that would violate it are deleted, keeping the one with the lowest ID. Run the blocks that were not
+-- applied yet, in order.
+--
+
+USE `guardedbox`;
+
+--
+-- Unique registration token
+--
+
+DELETE r1 FROM `registration` r1
+  JOIN `registration` r2
+    ON r1.`token` = r2.`token` AND r1.`registration_id` > r2.`registration_id`;
+
+ALTER TABLE `registration`
+  DROP INDEX `TOKEN`,
+  ADD UNIQUE KEY `TOKEN` (`token`);
+
+--
+-- Version and last modification time of secrets, groups, sharings and participations
+--
+
+ALTER TABLE `secret`
+  ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0',
+  ADD COLUMN `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE `group_`
+  ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0',
+  ADD COLUMN `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE `shared_secret`
+  ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0',
+  ADD COLUMN `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE `group_participant`
+  ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0',
+  ADD COLUMN `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+--
+-- Unique participation of an account in a group
+--
+
+DELETE gp1 FROM `group_participant` gp1
+  JOIN `group_participant` gp2
+    ON gp1.`group_id` = gp2.`group_id` AND gp1.`account_id` = gp2.`account_id` AND gp1.`group_participant_id` > gp2.`group_participant_id`;
+
+ALTER TABLE `group_participant`
+  DROP INDEX `GROUP_ID`,
+  ADD UNIQUE KEY `GROUP_ID_ACCOUNT_ID` (`group_id`,`account_id`);
+
+--
+-- Unique ex member of a group by email
+--
+
+DELETE em1 FROM `ex_member` em1
+  JOIN `ex_member` em2
+    ON em1.`group_id` = em2.`group_id` AND em1.`email` = em2.`email` AND em1.`ex_member_id` > em2.`ex_member_id`;
+
+ALTER TABLE `ex_member`
+  DROP INDEX `GROUP_ID`,
+  ADD UNIQUE KEY `GROUP_ID_EMAIL` (`group_id`,`email`);
+
+--
+-- Unique ex member of a secret by email
+--
+
+DELETE em1 FROM `ex_member` em1
+  JOIN `ex_member` em2
+    ON em1.`secret_id` = em2.`secret_id` AND em1.`email` = em2.`email` AND em1.`ex_member_id` > em2.`ex_member_id`;
+
+ALTER TABLE `ex_member`
+  DROP INDEX `SECRET_ID`,
+  ADD UNIQUE KEY `SECRET_ID_EMAIL` (`secret_id`,`email`);
@@ -48,8 +48,8 @@ CREATE TABLE `ex_member` (
   `email` varchar(254) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
   `cause` varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
   PRIMARY KEY (`ex_member_id`),
-  KEY `SECRET_ID` (`secret_id`),
-  KEY `GROUP_ID` (`group_id`),
+  UNIQUE KEY `SECRET_ID_EMAIL` (`secret_id`,`email`),
+  UNIQUE KEY `GROUP_ID_EMAIL` (`group_id`,`email`),
   KEY `EMAIL` (`email`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -69,6 +69,8 @@ CREATE TABLE `group_` (
   `must_rotate_key` bit(1) DEFAULT NULL,
   `had_participants` bit(1) DEFAULT NULL,
   `participants_visible` bit(1) DEFAULT NULL,
+  `version` bigint(20) NOT NULL DEFAULT '0',
+  `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`group_id`),
   KEY `OWNER_ACCOUNT_ID` (`owner_account_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -86,8 +88,10 @@ CREATE TABLE `group_participant` (
   `group_id` binary(16) DEFAULT NULL,
   `account_id` binary(16) DEFAULT NULL,
   `encrypted_key` char(60) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `version` bigint(20) NOT NULL DEFAULT '0',
+  `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`group_participant_id`),
-  KEY `GROUP_ID` (`group_id`),
+  UNIQUE KEY `GROUP_ID_ACCOUNT_ID` (`group_id`,`account_id`),
   KEY `ACCOUNT_ID` (`account_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -147,7 +151,7 @@ CREATE TABLE `registration` (
   `account_id` binary(16) DEFAULT NULL,
   PRIMARY KEY (`registration_id`),
   KEY `EMAIL` (`email`),
-  KEY `TOKEN` (`token`),
+  UNIQUE KEY `TOKEN` (`token`),
   KEY `ACCOUNT_ID` (`account_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -166,6 +170,8 @@ CREATE TABLE `secret` (
   `encrypted_key` char(60) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
   `must_rotate_key` bit(1) DEFAULT NULL,
   `was_shared` bit(1) DEFAULT NULL,
+  `version` bigint(20) NOT NULL DEFAULT '0',
+  `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`secret_id`),
   KEY `OWNER_ACCOUNT_ID` (`owner_account_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -183,6 +189,8 @@ CREATE TABLE `shared_secret` (
   `secret_id` binary(16) DEFAULT NULL,
   `receiver_account_id` binary(16) DEFAULT NULL,
   `encrypted_key` char(60) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `version` bigint(20) NOT NULL DEFAULT '0',
+  `last_modified` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`shared_secret_id`),
   KEY `SECRET_ID` (`secret_id`),
   KEY `RECEIVER_ACCOUNT_ID` (`receiver_account_id`)
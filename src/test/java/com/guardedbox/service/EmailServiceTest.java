@@ -0,0 +1,241 @@
+package com.guardedbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.guardedbox.exception.ServiceException;
+
+/**
+ * Tests of EmailService.
+ *
+ * @author s3curitybug@gmail.com
+ *
+ */
+public class EmailServiceTest {
+
+    /** Base delay between attempts used in the tests (ms). */
+    private static final long RETRY_BACKOFF = 50;
+
+    /** Maximum time the tests wait for the dispatcher threads (s). */
+    private static final long WAIT_TIMEOUT = 10;
+
+    /** EmailService under test. */
+    private EmailService emailService;
+
+    /**
+     * Stub mail sender. Records the send attempts instead of connecting to an SMTP server, and fails the configured number of
+     * first attempts.
+     */
+    private static class StubMailSender
+            extends JavaMailSenderImpl {
+
+        /** Times of the send attempts. */
+        private final List<Long> attemptTimes = Collections.synchronizedList(new ArrayList<>());
+
+        /** Counts down the emails sent successfully. */
+        private final CountDownLatch sent;
+
+        /** Counts down the failed attempts. */
+        private final CountDownLatch failed;
+
+        /** Number of first attempts that fail. */
+        private final int failedAttempts;
+
+        /** Whether the failed attempts report each failed email, instead of failing as a whole. */
+        private final boolean partialFailures;
+
+        /** Released when a send attempt starts. */
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        /** Attempts wait for it before sending, or null to not wait. */
+        private final CountDownLatch blocker;
+
+        /**
+         * Constructor.
+         *
+         * @param expectedSentEmails Number of emails expected to be sent successfully.
+         * @param failedAttempts Number of first attempts that fail.
+         * @param partialFailures Whether failed attempts report each failed email, instead of failing as a whole.
+         * @param blocker Attempts wait for it before sending, or null to not wait.
+         */
+        StubMailSender(
+                int expectedSentEmails,
+                int failedAttempts,
+                boolean partialFailures,
+                CountDownLatch blocker) {
+
+            this.sent = new CountDownLatch(expectedSentEmails);
+            this.failed = new CountDownLatch(failedAttempts);
+            this.failedAttempts = failedAttempts;
+            this.partialFailures = partialFailures;
+            this.blocker = blocker;
+
+        }
+
+        @Override
+        protected void doSend(
+                MimeMessage[] mimeMessages,
+                Object[] originalMessages) {
+
+            started.countDown();
+
+            if (blocker != null) {
+                try {
+                    blocker.await(WAIT_TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            attemptTimes.add(System.nanoTime());
+
+            if (attemptTimes.size() <= failedAttempts) {
+                failed.countDown();
+                if (!partialFailures)
+                    throw new MailAuthenticationException("Stub authentication failure");
+                Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+                for (MimeMessage mimeMessage : mimeMessages) {
+                    failedMessages.put(mimeMessage, new Exception("Stub send failure"));
+                }
+                throw new MailSendException(failedMessages);
+            }
+
+            for (int i = 0; i < mimeMessages.length; i++) {
+                sent.countDown();
+            }
+
+        }
+
+    }
+
+    /**
+     * Creates and initializes the EmailService under test.
+     *
+     * @param stubMailSender The stub mail sender.
+     * @param queueCapacity Capacity of the queue.
+     * @param maxAttempts Maximum number of attempts.
+     */
+    private void createEmailService(
+            StubMailSender stubMailSender,
+            int queueCapacity,
+            int maxAttempts) {
+
+        emailService = new EmailService(
+                "accounts@guardedbox.com", "", "", 1, queueCapacity, 20, maxAttempts, RETRY_BACKOFF, 100L, 0L, stubMailSender);
+        ReflectionTestUtils.invokeMethod(emailService, "postConstruct");
+
+    }
+
+    /**
+     * Stops the dispatcher threads of the EmailService under test.
+     */
+    @AfterEach
+    public void destroyEmailService() {
+
+        if (emailService != null)
+            ReflectionTestUtils.invokeMethod(emailService, "preDestroy");
+
+    }
+
+    /**
+     * Checks that an email is rejected with a ServiceException when the queue stays full during the offer timeout.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Test
+    public void sendAsyncFailsWhenQueueIsFull() throws InterruptedException {
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        StubMailSender stubMailSender = new StubMailSender(2, 0, false, blocker);
+        createEmailService(stubMailSender, 1, 1);
+
+        // The dispatcher takes the first email and blocks sending it, and the second one fills the queue.
+        emailService.sendAsync("first@guardedbox.com", "Subject", "Content");
+        assertTrue(stubMailSender.started.await(WAIT_TIMEOUT, TimeUnit.SECONDS));
+        emailService.sendAsync("second@guardedbox.com", "Subject", "Content");
+
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> emailService.sendAsync("third@guardedbox.com", "Subject", "Content"));
+        assertEquals(EmailService.EMAIL_SERVICE_UNAVAILABLE_ERROR_CODE, e.getErrorCode());
+
+        // Once the dispatcher is unblocked, the queued emails are sent.
+        blocker.countDown();
+        assertTrue(stubMailSender.sent.await(WAIT_TIMEOUT, TimeUnit.SECONDS));
+
+    }
+
+    /**
+     * Checks that the emails reported as failed are retried after the backoff, until they are sent.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Test
+    public void sendAsyncRetriesFailedEmails() throws InterruptedException {
+
+        StubMailSender stubMailSender = new StubMailSender(1, 2, true, null);
+        createEmailService(stubMailSender, 10, 3);
+
+        emailService.sendAsync("receiver@guardedbox.com", "Subject", "Content");
+
+        assertTrue(stubMailSender.sent.await(WAIT_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(3, stubMailSender.attemptTimes.size());
+        assertBackoff(stubMailSender.attemptTimes);
+
+    }
+
+    /**
+     * Checks that an email is given up after the maximum number of attempts, with exponential backoff between them, and that
+     * the dispatcher goes on sending the next emails.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Test
+    public void sendAsyncGivesUpAfterMaxAttempts() throws InterruptedException {
+
+        StubMailSender stubMailSender = new StubMailSender(1, 3, false, null);
+        createEmailService(stubMailSender, 10, 3);
+
+        emailService.sendAsync("failed@guardedbox.com", "Subject", "Content");
+        assertTrue(stubMailSender.failed.await(WAIT_TIMEOUT, TimeUnit.SECONDS));
+        emailService.sendAsync("sent@guardedbox.com", "Subject", "Content");
+
+        assertTrue(stubMailSender.sent.await(WAIT_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(4, stubMailSender.attemptTimes.size());
+        assertBackoff(stubMailSender.attemptTimes.subList(0, 3));
+
+    }
+
+    /**
+     * Checks that the delay before each retry is at least the base backoff doubled on each attempt.
+     *
+     * @param attemptTimes Times of the consecutive attempts to send the same emails (ns).
+     */
+    private static void assertBackoff(
+            List<Long> attemptTimes) {
+
+        for (int i = 1; i < attemptTimes.size(); i++) {
+            long delay = TimeUnit.NANOSECONDS.toMillis(attemptTimes.get(i) - attemptTimes.get(i - 1));
+            assertTrue(delay >= RETRY_BACKOFF << (i - 1), String.format("Delay before attempt %d was %d ms", i + 1, delay));
+        }
+
+    }
+
+}
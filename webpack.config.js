@@ -1,4 +1,5 @@
 const Path = require('path');
+const Zlib = require('zlib');
 const { CleanWebpackPlugin } = require('clean-webpack-plugin');
 const HtmlWebpackPlugin = require('html-webpack-plugin');
 const SriPlugin = require('webpack-subresource-integrity');
@@ -6,6 +7,48 @@ const TerserPlugin = require('terser-webpack-plugin');
 const MiniCssExtractPlugin = require('mini-css-extract-plugin');
 const OptimizeCSSAssetsPlugin = require('optimize-css-assets-webpack-plugin');
 
+/**
+ * Adds a gzip and a brotli precompressed copy of each emitted asset matching the test, if it is at least threshold bytes
+ * long and compresses to less than minRatio of its size. It uses the zlib module of Node, so it needs no extra dependency.
+ */
+class PrecompressPlugin {
+
+    constructor({ test, threshold, minRatio }) {
+        this.test = test;
+        this.threshold = threshold;
+        this.minRatio = minRatio;
+    }
+
+    apply(compiler) {
+        compiler.hooks.emit.tap('PrecompressPlugin', (compilation) => {
+            Object.keys(compilation.assets).filter((name) => this.test.test(name)).forEach((name) => {
+                const source = compilation.assets[name].source();
+                const buffer = Buffer.isBuffer(source) ? source : Buffer.from(source);
+                if (buffer.length < this.threshold) return;
+                const compressions = {
+                    gz: Zlib.gzipSync(buffer, {
+                        level: Zlib.constants.Z_BEST_COMPRESSION
+                    }),
+                    br: Zlib.brotliCompressSync(buffer, {
+                        params: {
+                            [Zlib.constants.BROTLI_PARAM_QUALITY]: Zlib.constants.BROTLI_MAX_QUALITY
+                        }
+                    })
+                };
+                Object.keys(compressions).forEach((extension) => {
+                    const compressed = compressions[extension];
+                    if (compressed.length / buffer.length >= this.minRatio) return;
+                    compilation.assets[name + '.' + extension] = {
+                        source: () => compressed,
+                        size: () => compressed.length
+                    };
+                });
+            });
+        });
+    }
+
+}
+
 module.exports = (env, argv) => ({
     entry: './src/main/front/index.jsx',
     output: {
@@ -107,6 +150,13 @@ module.exports = (env, argv) => ({
         }),
         new MiniCssExtractPlugin({
             filename: argv.mode === 'production' ? 'css/bundle.[contenthash].css' : 'css/bundle.css'
-        })
+        }),
+        ...(argv.mode === 'production' ? [
+            new PrecompressPlugin({
+                test: /\.(js|css|html|svg|eot|ttf)$/,
+                threshold: 1024,
+                minRatio: 0.8
+            })
+        ] : [])
     ]
 });